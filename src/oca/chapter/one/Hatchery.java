@@ -0,0 +1,36 @@
+package oca.chapter.one;
+
+// Factory for Hatchling (the data of a Chick) and Zoo objects without the printing of the Chick and Zoo constructors.
+// - chick()/zoo() create a new object with each field written once.
+// - acquireChick()/acquireZoo() reuse an object from the per-thread Pool and reset its fields, release*() gives it back.
+public final class Hatchery {
+
+    private static final Pool<Hatchling> CHICKS = new Pool<>(() -> new Hatchling(null, 0), 1_024);
+    private static final Pool<Zoo> ZOOS = new Pool<>(() -> new Zoo(null, null), 1_024);
+
+    private Hatchery() { }
+
+    public static Hatchling chick(String name, long number) {
+        return new Hatchling(name, number);
+    }
+
+    public static Zoo zoo(String name, String location) {
+        return new Zoo(name, location);
+    }
+
+    public static Hatchling acquireChick(String name, long number) {
+        return CHICKS.acquire().reset(name, number);
+    }
+
+    public static void releaseChick(Hatchling chick) {
+        CHICKS.release(chick.reset(null, 0)); // Drops the reference to the name, so the pool doesn't keep it alive
+    }
+
+    public static Zoo acquireZoo(String name, String location) {
+        return ZOOS.acquire().reset(name, location);
+    }
+
+    public static void releaseZoo(Zoo zoo) {
+        ZOOS.release(zoo.reset(null, null));
+    }
+}
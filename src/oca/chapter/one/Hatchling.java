@@ -0,0 +1,24 @@
+package oca.chapter.one;
+
+// The data of a Chick without its initialization example: no initializer prints, each field is written once, and it can be
+// reset and reused from a Pool. Chick keeps its field initializers and instance initializer to show the order of
+// initialization. Created by Hatchery.
+public final class Hatchling {
+
+    private String name;
+    private long number;
+
+    Hatchling(String name, long number) {
+        this.name = name;
+        this.number = number;
+    }
+
+    Hatchling reset(String name, long number) { // Reuses a pooled Hatchling, see Hatchery
+        this.name = name;
+        this.number = number;
+        return this;
+    }
+
+    public String getName() { return name; }
+    public long getNumber() { return number; }
+}
@@ -0,0 +1,64 @@
+package oca.chapter.one;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.function.Consumer;
+
+// A ZooIngest handler that counts the zoos of each location. The locations are kept as bytes in an open addressing table, so a
+// record only costs a hash and a compare of its bytes, a byte[] is created the first time a location is seen.
+// One counter per handler thread (it isn't thread safe), addTo() merges them at the end.
+public final class LocationCounter implements Consumer<ZooRecords> {
+
+    private byte[][] keys = new byte[64][];
+    private int[] hashes = new int[64];
+    private long[] counts = new long[64];
+    private int used;
+
+    @Override
+    public void accept(ZooRecords records) {
+        for (int i = 0; i < records.size(); i++) count(records, i);
+    }
+
+    private void count(ZooRecords records, int record) {
+        int hash = records.locationHash(record);
+        int mask = keys.length - 1;
+        int slot = (hash ^ hash >>> 16) & mask;
+        while (keys[slot] != null) {
+            if (hashes[slot] == hash && records.locationEquals(record, keys[slot])) {
+                counts[slot]++;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        byte[] key = new byte[records.locationLength(record)];
+        records.copyLocation(record, key, 0);
+        keys[slot] = key;
+        hashes[slot] = hash;
+        counts[slot] = 1;
+        if (++used * 2 > keys.length) grow(); // At most half full, so the probe sequences stay short
+    }
+
+    private void grow() {
+        byte[][] oldKeys = keys;
+        int[] oldHashes = hashes;
+        long[] oldCounts = counts;
+        keys = new byte[oldKeys.length * 2][];
+        hashes = new int[keys.length];
+        counts = new long[keys.length];
+        int mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] == null) continue;
+            int slot = (oldHashes[i] ^ oldHashes[i] >>> 16) & mask;
+            while (keys[slot] != null) slot = (slot + 1) & mask;
+            keys[slot] = oldKeys[i];
+            hashes[slot] = oldHashes[i];
+            counts[slot] = oldCounts[i];
+        }
+    }
+
+    public void addTo(Map<String, Long> totals) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null) totals.merge(new String(keys[i], StandardCharsets.UTF_8), counts[i], Long::sum);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package oca.chapter.one;
+
+import java.util.ArrayDeque;
+import java.util.function.Supplier;
+
+// Per-thread object pool: each thread has its own stack of free objects, so acquire() and release() need no synchronization.
+// An object must be released by the same thread that acquired it, and must not be used after it's released.
+// Only worth it when construction is expensive or objects live long enough to leave the young generation, short-lived objects
+// that don't escape are usually cheaper to just create (see PoolBenchmark).
+public final class Pool<T> {
+
+    private final Supplier<T> factory;
+    private final int maxIdle;
+    private final ThreadLocal<ArrayDeque<T>> idle = ThreadLocal.withInitial(ArrayDeque::new);
+
+    public Pool(Supplier<T> factory, int maxIdle) {
+        this.factory = factory;
+        this.maxIdle = maxIdle;
+    }
+
+    public T acquire() {
+        T object = idle.get().pollFirst();
+        return object != null ? object : factory.get();
+    }
+
+    public void release(T object) {
+        ArrayDeque<T> free = idle.get();
+        if (free.size() < maxIdle) free.addFirst(object); // Extra objects are left to the garbage collector
+    }
+}
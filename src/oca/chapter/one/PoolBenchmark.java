@@ -0,0 +1,81 @@
+package oca.chapter.one;
+
+import java.lang.management.*;
+
+// Compares the GC pressure of three ways to get short-lived chicks (Hatchling, a Chick without its printing initializers):
+// - new (escaping): a new Hatchling is kept in a window of the last 1024 chicks, so it escapes and has to be allocated on the heap.
+// - pooled: same window, but the Hatchling that leaves the window goes back to the pool and is reused, no allocation after warm up.
+// - new (escape analyzed): the Hatchling is only used inside the loop, C2 replaces it with its fields (scalar replacement).
+// java oca.chapter.one.PoolBenchmark [operations]
+// java -XX:-DoEscapeAnalysis oca.chapter.one.PoolBenchmark - the third mode allocates again.
+public class PoolBenchmark {
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private static final int WINDOW = 1_024;
+
+    public static void main(String... args) {
+        int operations = args.length > 0 ? Integer.parseInt(args[0]) : 20_000_000;
+        String[] names = { "Fluffy", "Tiny", "Chirpy", "Nugget" };
+
+        for (int round = 0; round < 3; round++) {
+            System.out.println("\n----------------round " + round + "----------------\n");
+
+            Hatchling[] window = new Hatchling[WINDOW];
+            Measure measure = new Measure();
+            long sum = 0;
+            for (int i = 0; i < operations; i++) {
+                Hatchling chick = Hatchery.chick(names[i & 3], i);
+                window[i & (WINDOW - 1)] = chick;
+                sum += chick.getNumber();
+            }
+            measure.report("new (escaping)", operations, sum);
+
+            window = new Hatchling[WINDOW];
+            measure = new Measure();
+            sum = 0;
+            for (int i = 0; i < operations; i++) {
+                Hatchling chick = Hatchery.acquireChick(names[i & 3], i);
+                Hatchling old = window[i & (WINDOW - 1)];
+                if (old != null) Hatchery.releaseChick(old);
+                window[i & (WINDOW - 1)] = chick;
+                sum += chick.getNumber();
+            }
+            measure.report("pooled", operations, sum);
+
+            measure = new Measure();
+            sum = 0;
+            for (int i = 0; i < operations; i++) {
+                Hatchling chick = Hatchery.chick(names[i & 3], i);
+                sum += chick.getNumber() + chick.getName().length();
+            }
+            measure.report("new (escape analyzed)", operations, sum);
+        }
+    }
+
+    private static class Measure {
+        final long threadId = Thread.currentThread().getId();
+        final long bytes = THREADS.getThreadAllocatedBytes(threadId);
+        final long gcCount = gcCount();
+        final long gcTime = gcTime();
+        final long start = System.nanoTime();
+
+        void report(String name, int operations, long sum) {
+            long elapsed = System.nanoTime() - start;
+            System.out.printf("%-22s %6.2f ns/op %6.2f bytes/op %4d GCs %4d ms in GC (%d)%n", name, (double) elapsed / operations,
+                (double) (THREADS.getThreadAllocatedBytes(threadId) - bytes) / operations, gcCount() - gcCount, gcTime() - gcTime, sum);
+        }
+
+        static long gcCount() {
+            long count = 0;
+            for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) count += gc.getCollectionCount();
+            return count;
+        }
+
+        static long gcTime() {
+            long time = 0;
+            for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) time += gc.getCollectionTime();
+            return time;
+        }
+    }
+}
@@ -4,11 +4,38 @@ import java.util.Random;
 //After compiling the .java file, to execute this class type java oca.chapter.one.Zoo "San Diego" Zoo from the \src folder
 public class Zoo {
 
+    private String name;
+    private String location;
+
     public Zoo() {
         System.out.println("Contructor");
     }
 
-    public static void main(String[] args) {
+    Zoo(String name, String location) { // Quiet constructor, used by Hatchery
+        this.name = name;
+        this.location = location;
+    }
+
+    Zoo reset(String name, String location) {
+        this.name = name;
+        this.location = location;
+        return this;
+    }
+
+    public String getName() { return name; }
+    public String getLocation() { return location; }
+
+    // java oca.chapter.one.Zoo <name> <location> - one zoo from the arguments
+    // java oca.chapter.one.Zoo --ingest [file | -]  - many 'name,location' lines from a file or stdin, see ZooIngest
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && args[0].equals("--ingest")) {
+            ZooIngest.main(java.util.Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        if (args.length < 2) {
+            System.err.println("Usage: java oca.chapter.one.Zoo <name> <location> | --ingest [file | -]");
+            return;
+        }
         System.out.println("Welcome!");
 
         System.out.println(args[0]);
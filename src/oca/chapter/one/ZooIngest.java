@@ -0,0 +1,229 @@
+package oca.chapter.one;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.*;
+
+// Bulk mode of Zoo: reads 'name,location' records (one per line, UTF-8) from a file or from stdin and runs them through a
+// bounded pipeline:
+//   reader thread -> blocks queue -> parser threads -> parsed queue -> handler threads
+// - A file is memory-mapped (1 GB at a time) and cut into ~1 MB blocks that end at a line end. A block is a view over the
+//   mapping, the bytes are never copied to the heap. stdin (usually a pipe, which can't be mapped) is read into 1 MB buffers.
+// - The parsers turn each block into a ZooRecords: offsets into the block, no String per line.
+// - Both queues hold at most 'capacity' blocks, so a slow handler makes the reader wait instead of filling the memory.
+// The blocks are handled in parallel, so the handlers see them in no particular order.
+// java oca.chapter.one.ZooIngest [file | -]                 - counts the zoos of each location, stdin when there's no file or '-'
+// java oca.chapter.one.ZooIngest --generate <file> <records> - writes a test file
+public final class ZooIngest {
+
+    private static final int BLOCK = 1 << 20;
+    private static final long REGION = 1L << 30; // A mapping is limited to 2 GB, bigger files are mapped in several regions
+    private static final ByteBuffer END_OF_BLOCKS = ByteBuffer.allocate(0);
+    private static final ZooRecords END_OF_RECORDS = ZooRecords.parse(ByteBuffer.allocate(0));
+
+    private final int parsers;
+    private final int handlers;
+    private final int capacity;
+
+    public ZooIngest(int parsers, int handlers, int capacity) {
+        if (parsers < 1 || handlers < 1 || capacity < 1) {
+            throw new IllegalArgumentException("parsers, handlers and capacity must be positive");
+        }
+        this.parsers = parsers;
+        this.handlers = handlers;
+        this.capacity = capacity;
+    }
+
+    public static final class Result<H> {
+        private final List<H> handlers;
+        private final long records;
+        private final long skipped;
+        private final long bytes;
+        private final long nanos;
+
+        private Result(List<H> handlers, long records, long skipped, long bytes, long nanos) {
+            this.handlers = handlers;
+            this.records = records;
+            this.skipped = skipped;
+            this.bytes = bytes;
+            this.nanos = nanos;
+        }
+
+        public List<H> getHandlers() { return handlers; }
+        public long getRecords() { return records; }
+        public long getSkipped() { return skipped; }
+        public long getBytes() { return bytes; }
+
+        public double recordsPerSecond() {
+            return records * 1e9 / Math.max(1, nanos);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%,d records (%,d skipped) in %.3f s: %,.0f records/s, %.1f MB/s", records, skipped, nanos / 1e9,
+                recordsPerSecond(), bytes * 1e9 / Math.max(1, nanos) / (1 << 20));
+        }
+    }
+
+    // Reads the file (stdin when it's null) and passes every block of records to one of the handlers, one handler per thread.
+    public <H extends Consumer<? super ZooRecords>> Result<H> run(Path file, Supplier<H> handler)
+            throws IOException, InterruptedException {
+        List<H> instances = new ArrayList<>(handlers);
+        for (int i = 0; i < handlers; i++) instances.add(handler.get());
+        BlockingQueue<ByteBuffer> blocks = new ArrayBlockingQueue<>(capacity);
+        BlockingQueue<ZooRecords> parsed = new ArrayBlockingQueue<>(capacity);
+        AtomicInteger parsersLeft = new AtomicInteger(parsers);
+        long[][] totals = new long[handlers][3]; // records, skipped, bytes of each handler thread
+
+        ExecutorService threads = Executors.newFixedThreadPool(1 + parsers + handlers);
+        CompletionService<Void> tasks = new ExecutorCompletionService<>(threads);
+        long start = System.nanoTime();
+        tasks.submit(() -> {
+            if (file != null) map(file, blocks);
+            else read(Channels.newChannel(System.in), blocks);
+            for (int i = 0; i < parsers; i++) blocks.put(END_OF_BLOCKS);
+            return null;
+        });
+        for (int p = 0; p < parsers; p++) {
+            tasks.submit(() -> {
+                for (ByteBuffer block = blocks.take(); block != END_OF_BLOCKS; block = blocks.take()) parsed.put(ZooRecords.parse(block));
+                if (parsersLeft.decrementAndGet() == 0) { // The last parser tells the handlers that there's nothing left
+                    for (int i = 0; i < handlers; i++) parsed.put(END_OF_RECORDS);
+                }
+                return null;
+            });
+        }
+        for (int h = 0; h < handlers; h++) {
+            H instance = instances.get(h);
+            long[] total = totals[h];
+            tasks.submit(() -> {
+                for (ZooRecords records = parsed.take(); records != END_OF_RECORDS; records = parsed.take()) {
+                    instance.accept(records);
+                    total[0] += records.size();
+                    total[1] += records.skipped();
+                    total[2] += records.bytes();
+                }
+                return null;
+            });
+        }
+
+        try {
+            for (int i = 0; i < 1 + parsers + handlers; i++) tasks.take().get(); // The first failure stops everything
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) throw (IOException) cause;
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            if (cause instanceof Error) throw (Error) cause;
+            throw new IllegalStateException(cause);
+        } finally {
+            threads.shutdownNow(); // Interrupts the threads still waiting on a queue after a failure
+        }
+        long nanos = System.nanoTime() - start;
+        long records = 0, skipped = 0, bytes = 0;
+        for (long[] total : totals) {
+            records += total[0];
+            skipped += total[1];
+            bytes += total[2];
+        }
+        return new Result<>(instances, records, skipped, bytes, nanos);
+    }
+
+    private static void map(Path file, BlockingQueue<ByteBuffer> blocks) throws IOException, InterruptedException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = 0;
+            while (position < size) {
+                long length = Math.min(REGION, size - position);
+                MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                int end = (int) length;
+                if (position + length < size) { // The next region starts at the first line that doesn't end in this one
+                    end = lastLineEnd(region, 0, end);
+                    if (end == 0) throw new IOException("Line longer than " + REGION + " bytes at " + position);
+                }
+                for (int from = 0; from < end; ) {
+                    int to = blockEnd(region, from, end);
+                    blocks.put(slice(region, from, to));
+                    from = to;
+                }
+                position += end;
+            }
+        }
+    }
+
+    private static void read(ReadableByteChannel in, BlockingQueue<ByteBuffer> blocks) throws IOException, InterruptedException {
+        ByteBuffer buffer = ByteBuffer.allocate(BLOCK);
+        boolean more = true;
+        while (more) {
+            while (buffer.hasRemaining() && (more = in.read(buffer) >= 0)) { } // Fills the buffer or reaches the end
+            int end = more ? lastLineEnd(buffer, 0, buffer.position()) : buffer.position();
+            if (end == 0 && more) { // A line longer than the buffer, reads more of it
+                buffer = ByteBuffer.allocate(buffer.capacity() * 2).put(buffer.flip());
+                continue;
+            }
+            ByteBuffer next = ByteBuffer.allocate(Math.max(BLOCK, 2 * (buffer.position() - end)));
+            buffer.flip();
+            next.put(slice(buffer, end, buffer.limit())); // The incomplete last line goes to the next block
+            if (end > 0) blocks.put(slice(buffer, 0, end));
+            buffer = next;
+        }
+    }
+
+    // Where a block that starts at 'from' ends: at a line end around 'from + BLOCK', or at 'end'.
+    private static int blockEnd(ByteBuffer buffer, int from, int end) {
+        if (end - from <= BLOCK) return end;
+        int lineEnd = lastLineEnd(buffer, from, from + BLOCK);
+        if (lineEnd > from) return lineEnd;
+        for (int i = from + BLOCK; i < end; i++) { // A line longer than a block, the block ends with it
+            if (buffer.get(i) == '\n') return i + 1;
+        }
+        return end;
+    }
+
+    // The position after the last '\n' in [from, to), 'from' when there's none.
+    private static int lastLineEnd(ByteBuffer buffer, int from, int to) {
+        for (int i = to - 1; i >= from; i--) {
+            if (buffer.get(i) == '\n') return i + 1;
+        }
+        return from;
+    }
+
+    private static ByteBuffer slice(ByteBuffer buffer, int from, int to) {
+        ByteBuffer view = buffer.duplicate();
+        view.limit(to).position(from);
+        return view.slice();
+    }
+
+    static void generate(Path file, int records) throws IOException {
+        String[] cities = { "San Diego", "Miami", "Sao Paulo", "Berlin", "Singapore", "Toronto", "Sydney", "Lisbon", "Nairobi",
+            "Tokyo", "Prague", "Lima", "Oslo", "Cairo", "Denver", "Porto, Portugal" };
+        Random random = new Random(1);
+        try (BufferedWriter out = Files.newBufferedWriter(file)) {
+            for (int i = 0; i < records; i++) {
+                out.write("Zoo " + i + "," + cities[random.nextInt(cities.length)]);
+                out.newLine();
+            }
+        }
+    }
+
+    public static void main(String... args) throws IOException, InterruptedException {
+        if (args.length == 3 && args[0].equals("--generate")) {
+            generate(Paths.get(args[1]), Integer.parseInt(args[2]));
+            return;
+        }
+        Path file = args.length > 0 && !args[0].equals("-") ? Paths.get(args[0]) : null;
+        int threads = Runtime.getRuntime().availableProcessors();
+        ZooIngest ingest = new ZooIngest(Math.max(1, threads / 2), Math.max(1, threads / 2), 16);
+
+        Result<LocationCounter> result = ingest.run(file, LocationCounter::new);
+        Map<String, Long> zoos = new TreeMap<>();
+        for (LocationCounter counter : result.getHandlers()) counter.addTo(zoos);
+        zoos.forEach((location, count) -> System.out.println(location + ": " + count));
+        System.out.println(result);
+    }
+}
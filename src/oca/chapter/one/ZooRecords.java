@@ -0,0 +1,121 @@
+package oca.chapter.one;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+// A block of 'name,location' lines (UTF-8) and where each record is inside it. Parsing only stores 4 ints per record (start and
+// end of the name and of the location), no String is created: name(i)/location(i) decode one when it's really needed, and the
+// *Hash/*Equals/copy methods work on the bytes directly.
+// The location is everything after the first comma, so it may contain commas. Lines without a comma are counted as skipped.
+public final class ZooRecords {
+
+    private final ByteBuffer block;
+    private int[] bounds; // nameFrom, nameTo, locationFrom, locationTo for each record
+    private int size;
+    private int skipped;
+
+    private ZooRecords(ByteBuffer block, int expected) {
+        this.block = block;
+        this.bounds = new int[Math.max(4, expected * 4)];
+    }
+
+    // Parses a block that ends at the end of a line (or at the end of the input). A trailing '\r' is dropped, empty lines are ignored.
+    public static ZooRecords parse(ByteBuffer block) {
+        ZooRecords records = new ZooRecords(block, block.remaining() / 24); // Guess of 24 bytes per line, grows if needed
+        int limit = block.limit();
+        int lineStart = block.position();
+        int comma = -1;
+        for (int i = lineStart; i <= limit; i++) {
+            byte b = i < limit ? block.get(i) : (byte) '\n'; // The last line may have no '\n'
+            if (b == ',' && comma < 0) {
+                comma = i;
+            } else if (b == '\n') {
+                int lineEnd = i > lineStart && block.get(i - 1) == '\r' ? i - 1 : i;
+                if (comma >= 0 && comma < lineEnd) records.add(lineStart, comma, comma + 1, lineEnd);
+                else if (lineEnd > lineStart) records.skipped++;
+                lineStart = i + 1;
+                comma = -1;
+            }
+        }
+        return records;
+    }
+
+    private void add(int nameFrom, int nameTo, int locationFrom, int locationTo) {
+        if (size * 4 == bounds.length) bounds = Arrays.copyOf(bounds, bounds.length * 2);
+        int at = size++ * 4;
+        bounds[at] = nameFrom;
+        bounds[at + 1] = nameTo;
+        bounds[at + 2] = locationFrom;
+        bounds[at + 3] = locationTo;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int skipped() {
+        return skipped;
+    }
+
+    public int bytes() {
+        return block.remaining();
+    }
+
+    public String name(int record) {
+        return decode(bounds[check(record) * 4], bounds[record * 4 + 1]);
+    }
+
+    public String location(int record) {
+        return decode(bounds[check(record) * 4 + 2], bounds[record * 4 + 3]);
+    }
+
+    public int nameLength(int record) {
+        return bounds[check(record) * 4 + 1] - bounds[record * 4];
+    }
+
+    public int locationLength(int record) {
+        return bounds[check(record) * 4 + 3] - bounds[record * 4 + 2];
+    }
+
+    public int locationHash(int record) {
+        return hash(bounds[check(record) * 4 + 2], bounds[record * 4 + 3]);
+    }
+
+    public boolean locationEquals(int record, byte[] location) {
+        return equals(bounds[check(record) * 4 + 2], bounds[record * 4 + 3], location);
+    }
+
+    // Copies the UTF-8 bytes of the location into 'target' at 'offset', returns the number of bytes.
+    public int copyLocation(int record, byte[] target, int offset) {
+        int from = bounds[check(record) * 4 + 2];
+        int length = bounds[record * 4 + 3] - from;
+        block.duplicate().position(from).get(target, offset, length);
+        return length;
+    }
+
+    private int check(int record) {
+        if (record < 0 || record >= size) throw new IndexOutOfBoundsException("Record " + record + " of " + size);
+        return record;
+    }
+
+    private String decode(int from, int to) {
+        byte[] bytes = new byte[to - from];
+        block.duplicate().position(from).get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private int hash(int from, int to) {
+        int hash = 1;
+        for (int i = from; i < to; i++) hash = 31 * hash + block.get(i); // Same as Arrays.hashCode(byte[]) of the bytes
+        return hash;
+    }
+
+    private boolean equals(int from, int to, byte[] other) {
+        if (to - from != other.length) return false;
+        for (int i = 0; i < other.length; i++) {
+            if (block.get(from + i) != other[i]) return false;
+        }
+        return true;
+    }
+}
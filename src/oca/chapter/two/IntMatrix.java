@@ -0,0 +1,253 @@
+package oca.chapter.two;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.stream.IntStream;
+
+// A rows x columns matrix of ints in one row-major block, instead of the array of row arrays of int[][] (myComplexArray in
+// JavaStatements): cell (r, c) is at index r * columns + c, so there's no row object to load before each row and the next row
+// starts right after the previous one in memory.
+// - The block is an int[] on the heap, or a direct buffer outside the heap (offHeap()), which the GC never copies or scans.
+// - row()/column() are views over the block, nothing is copied: a row is contiguous, a column steps 'columns' ints at a time.
+// - forEachTiled() and transpose() walk the matrix in TILE x TILE squares, so the rows and columns of a square stay in the cache
+//   while it's being read and written (a column-major walk over a big matrix loads a new cache line for every cell).
+// - parallelSum() and forEachRowBlock() split the rows into blocks and run them on the common ForkJoinPool.
+public final class IntMatrix {
+
+    public static final int TILE = 64; // 64 x 64 ints = 16 KB, two tiles (read and write) fit in a 32 KB+ L1 data cache
+
+    @FunctionalInterface
+    public interface CellConsumer {
+        void accept(int row, int column, int value);
+    }
+
+    @FunctionalInterface
+    public interface RowBlockConsumer {
+        void accept(IntMatrix matrix, int fromRow, int toRow); // toRow exclusive
+    }
+
+    private final int rows;
+    private final int columns;
+    private final int[] array;      // null when off heap
+    private final IntBuffer buffer; // null when on heap
+
+    public IntMatrix(int rows, int columns) {
+        this(rows, columns, false);
+    }
+
+    private IntMatrix(int rows, int columns, boolean offHeap) {
+        if (rows < 0 || columns < 0) throw new IllegalArgumentException("Negative size: " + rows + " x " + columns);
+        long size = (long) rows * columns;
+        if (size > (offHeap ? Integer.MAX_VALUE / Integer.BYTES : Integer.MAX_VALUE - 8)) {
+            throw new IllegalArgumentException("Too many cells: " + rows + " x " + columns);
+        }
+        this.rows = rows;
+        this.columns = columns;
+        this.array = offHeap ? null : new int[(int) size];
+        this.buffer = offHeap ? ByteBuffer.allocateDirect((int) size * Integer.BYTES).order(ByteOrder.nativeOrder()).asIntBuffer() : null;
+    }
+
+    public static IntMatrix offHeap(int rows, int columns) {
+        return new IntMatrix(rows, columns, true);
+    }
+
+    // Copies a rectangular int[][] (every row with the same length).
+    public static IntMatrix of(int[][] jagged) {
+        IntMatrix matrix = new IntMatrix(jagged.length, jagged.length == 0 ? 0 : jagged[0].length);
+        for (int r = 0; r < jagged.length; r++) {
+            if (jagged[r].length != matrix.columns) {
+                throw new IllegalArgumentException("Row " + r + " has " + jagged[r].length + " columns, expected " + matrix.columns);
+            }
+            System.arraycopy(jagged[r], 0, matrix.array, r * matrix.columns, matrix.columns);
+        }
+        return matrix;
+    }
+
+    public int rows() {
+        return rows;
+    }
+
+    public int columns() {
+        return columns;
+    }
+
+    public boolean isOffHeap() {
+        return array == null;
+    }
+
+    public int get(int row, int column) {
+        int index = index(row, column);
+        return array != null ? array[index] : buffer.get(index);
+    }
+
+    public void set(int row, int column, int value) {
+        int index = index(row, column);
+        if (array != null) array[index] = value;
+        else buffer.put(index, value);
+    }
+
+    public Line row(int row) { // Empty when the matrix has no columns
+        if (row < 0 || row >= rows) {
+            throw new IndexOutOfBoundsException("Row " + row + " outside " + rows + " x " + columns);
+        }
+        return new Line(row * columns, 1, columns);
+    }
+
+    public Line column(int column) { // Empty when the matrix has no rows
+        if (column < 0 || column >= columns) {
+            throw new IndexOutOfBoundsException("Column " + column + " outside " + rows + " x " + columns);
+        }
+        return new Line(column, columns, rows);
+    }
+
+    // Row by row, the order of the memory.
+    public void forEach(CellConsumer action) {
+        for (int r = 0, i = 0; r < rows; r++) {
+            for (int c = 0; c < columns; c++, i++) action.accept(r, c, array != null ? array[i] : buffer.get(i));
+        }
+    }
+
+    // Tile by tile, row by row inside each tile.
+    public void forEachTiled(CellConsumer action) {
+        for (int top = 0; top < rows; top += TILE) {
+            for (int left = 0; left < columns; left += TILE) {
+                int bottom = Math.min(top + TILE, rows);
+                int right = Math.min(left + TILE, columns);
+                for (int r = top; r < bottom; r++) {
+                    for (int c = left, i = r * columns + left; c < right; c++, i++) {
+                        action.accept(r, c, array != null ? array[i] : buffer.get(i));
+                    }
+                }
+            }
+        }
+    }
+
+    public long sum() {
+        return sum(0, rows);
+    }
+
+    private long sum(int fromRow, int toRow) {
+        long sum = 0;
+        int to = toRow * columns;
+        if (array != null) {
+            for (int i = fromRow * columns; i < to; i++) sum += array[i];
+        } else { // A bulk get() into a small array is a memory copy, faster than one buffer.get(i) per cell
+            IntBuffer cells = buffer.duplicate();
+            cells.position(fromRow * columns).limit(to);
+            int[] chunk = new int[Math.min(4_096, cells.remaining())];
+            while (cells.hasRemaining()) {
+                int length = Math.min(chunk.length, cells.remaining());
+                cells.get(chunk, 0, length);
+                for (int i = 0; i < length; i++) sum += chunk[i];
+            }
+        }
+        return sum;
+    }
+
+    public long parallelSum() {
+        int blocks = blocks();
+        return IntStream.range(0, blocks).parallel().mapToLong(b -> sum(blockStart(b, blocks), blockStart(b + 1, blocks))).sum();
+    }
+
+    // Runs the action for blocks of consecutive rows in parallel, each block is handled by one thread.
+    public void forEachRowBlock(RowBlockConsumer action) {
+        int blocks = blocks();
+        IntStream.range(0, blocks).parallel().forEach(b -> action.accept(this, blockStart(b, blocks), blockStart(b + 1, blocks)));
+    }
+
+    private int blockStart(int block, int blocks) { // In long, rows * block overflows an int for tall matrices
+        return (int) ((long) rows * block / blocks);
+    }
+
+    // A new matrix (on or off heap like this one) with the rows as columns, copied tile by tile.
+    public IntMatrix transpose() {
+        IntMatrix result = new IntMatrix(columns, rows, isOffHeap());
+        for (int top = 0; top < rows; top += TILE) {
+            for (int left = 0; left < columns; left += TILE) {
+                int bottom = Math.min(top + TILE, rows);
+                int right = Math.min(left + TILE, columns);
+                if (array != null) transposeTile(array, result.array, top, bottom, left, right);
+                else transposeTile(buffer, result.buffer, top, bottom, left, right);
+            }
+        }
+        return result;
+    }
+
+    // Reads the tile column by column and writes it row by row.
+    private void transposeTile(int[] from, int[] to, int top, int bottom, int left, int right) {
+        for (int c = left; c < right; c++) {
+            for (int r = top, read = top * columns + c, write = c * rows + top; r < bottom; r++, read += columns, write++) {
+                to[write] = from[read];
+            }
+        }
+    }
+
+    private void transposeTile(IntBuffer from, IntBuffer to, int top, int bottom, int left, int right) {
+        for (int c = left; c < right; c++) {
+            for (int r = top, read = top * columns + c, write = c * rows + top; r < bottom; r++, read += columns, write++) {
+                to.put(write, from.get(read));
+            }
+        }
+    }
+
+    public int[][] toJagged() {
+        int[][] jagged = new int[rows][columns];
+        for (int r = 0; r < rows; r++) {
+            if (array != null) System.arraycopy(array, r * columns, jagged[r], 0, columns);
+            else buffer.duplicate().position(r * columns).get(jagged[r]);
+        }
+        return jagged;
+    }
+
+    private int index(int row, int column) {
+        if (row < 0 || row >= rows || column < 0 || column >= columns) {
+            throw new IndexOutOfBoundsException("(" + row + ", " + column + ") outside " + rows + " x " + columns);
+        }
+        return row * columns + column;
+    }
+
+    private int blocks() { // About 4 blocks per thread, with at least 64K cells per block so small matrices aren't split
+        long cells = (long) rows * columns;
+        int byCells = (int) Math.max(1, cells / 65_536);
+        return Math.max(1, Math.min(rows, Math.min(byCells, Runtime.getRuntime().availableProcessors() * 4)));
+    }
+
+    // A row or a column of the matrix: 'size' cells from 'offset', 'stride' ints apart. Reads and writes go to the matrix.
+    public final class Line {
+
+        private final int offset;
+        private final int stride;
+        private final int size;
+
+        private Line(int offset, int stride, int size) {
+            this.offset = offset;
+            this.stride = stride;
+            this.size = size;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public int get(int i) {
+            return array != null ? array[index(i)] : buffer.get(index(i));
+        }
+
+        public void set(int i, int value) {
+            if (array != null) array[index(i)] = value;
+            else buffer.put(index(i), value);
+        }
+
+        public long sum() {
+            long sum = 0;
+            for (int i = 0, at = offset; i < size; i++, at += stride) sum += array != null ? array[at] : buffer.get(at);
+            return sum;
+        }
+
+        private int index(int i) {
+            if (i < 0 || i >= size) throw new IndexOutOfBoundsException("Index " + i + " outside " + size);
+            return offset + i * stride;
+        }
+    }
+}
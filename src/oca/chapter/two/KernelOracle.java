@@ -0,0 +1,134 @@
+package oca.chapter.two;
+
+import java.util.Random;
+
+// Checks every NarrowKernels kernel against the plain Java expression, one element at a time, on random values mixed with the
+// edge cases of each type (MIN/MAX_VALUE, -1, 0, NaN, infinities, -0.0, subnormals). Runs several rounds so the kernels are
+// checked interpreted, compiled by C1 and compiled (vectorized) by C2.
+// Floats and doubles are compared by their bits, so 0.0 and -0.0 are different. NaN is compared with floatToIntBits, which
+// treats every NaN as the same: Java doesn't define which NaN bit pattern an operation returns.
+// java oca.chapter.two.KernelOracle [elements]
+// java -XX:-UseSuperWord oca.chapter.two.KernelOracle - same checks with the scalar loops only.
+public class KernelOracle {
+
+    private static final short[] SHORT_EDGES = { Short.MIN_VALUE, Short.MIN_VALUE + 1, -1, 0, 1, Short.MAX_VALUE, 181, 182, 255, 256 };
+    private static final float[] FLOAT_EDGES = { Float.NaN, Float.POSITIVE_INFINITY, Float.NEGATIVE_INFINITY, 0f, -0f,
+        Float.MIN_VALUE, Float.MAX_VALUE, 1e-40f, 0.1f, 40000f, 3e9f, -3e9f };
+    private static final double[] DOUBLE_EDGES = { Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, 0d, -0d,
+        Double.MIN_VALUE, Double.MAX_VALUE, 1e-310, 0.1, 3 };
+
+    public static void main(String... args) {
+        int elements = args.length > 0 ? Integer.parseInt(args[0]) : 100_003; // Not a multiple of a vector size: checks the tail
+        Random random = new Random(47);
+        int mismatches = 0;
+
+        for (int round = 0; round < 20; round++) {
+            short[] sa = shorts(elements, random), sb = shorts(elements, random);
+            float[] fa = floats(elements, random), fb = floats(elements, random);
+            double[] da = doubles(elements, random), db = doubles(elements, random);
+            short[] nonZero = sb.clone();
+            for (int i = 0; i < elements; i++) if (nonZero[i] == 0) nonZero[i] = 1;
+
+            short[] s = new short[elements];
+            int[] wide = new int[elements];
+            float[] f = new float[elements];
+            double[] d = new double[elements];
+            float factor = FLOAT_EDGES[round % FLOAT_EDGES.length];
+
+            NarrowKernels.add(sa, sb, s);
+            for (int i = 0; i < elements; i++) mismatches += check("short add", i, (short) (sa[i] + sb[i]), s[i]);
+            NarrowKernels.sub(sa, sb, s);
+            for (int i = 0; i < elements; i++) mismatches += check("short sub", i, (short) (sa[i] - sb[i]), s[i]);
+            NarrowKernels.mul(sa, sb, s);
+            for (int i = 0; i < elements; i++) mismatches += check("short mul", i, (short) (sa[i] * sb[i]), s[i]);
+            NarrowKernels.div(sa, nonZero, s);
+            for (int i = 0; i < elements; i++) mismatches += check("short div", i, (short) (sa[i] / nonZero[i]), s[i]);
+            NarrowKernels.addWide(sa, sb, wide);
+            for (int i = 0; i < elements; i++) mismatches += check("short addWide", i, sa[i] + sb[i], wide[i]);
+            NarrowKernels.scale(sa, factor, s);
+            for (int i = 0; i < elements; i++) mismatches += check("short scale " + factor, i, (short) (sa[i] * factor), s[i]);
+
+            NarrowKernels.add(fa, fb, f);
+            for (int i = 0; i < elements; i++) mismatches += check("float add", i, fa[i] + fb[i], f[i]);
+            NarrowKernels.mul(fa, fb, f);
+            for (int i = 0; i < elements; i++) mismatches += check("float mul", i, fa[i] * fb[i], f[i]);
+            NarrowKernels.div(fa, fb, f);
+            for (int i = 0; i < elements; i++) mismatches += check("float div", i, fa[i] / fb[i], f[i]);
+
+            NarrowKernels.add(da, db, d);
+            for (int i = 0; i < elements; i++) mismatches += check("double add", i, da[i] + db[i], d[i]);
+            NarrowKernels.mul(da, db, d);
+            for (int i = 0; i < elements; i++) mismatches += check("double mul", i, da[i] * db[i], d[i]);
+            NarrowKernels.div(da, db, d);
+            for (int i = 0; i < elements; i++) mismatches += check("double div", i, da[i] / db[i], d[i]);
+
+            NarrowKernels.mulDiv(sa, fa, da, d);
+            for (int i = 0; i < elements; i++) mismatches += check("mulDiv", i, sa[i] * fa[i] / da[i], d[i]);
+        }
+
+        try {
+            NarrowKernels.div(new short[] { 1, 2 }, new short[] { 1, 0 }, new short[2]);
+            mismatches += check("short div by zero", 1, 1, 0);
+        } catch (ArithmeticException expected) { // Same exception as 2 / 0
+        }
+
+        short x = 14; // The values of BinaryArithmetic
+        float y = 14;
+        double z = 4;
+        double[] r = new double[1];
+        NarrowKernels.mulDiv(new short[] { x }, new float[] { y }, new double[] { z }, r);
+        System.out.println("x * y / z = " + r[0] + " (" + (x * y / z) + ")");
+
+        // The promotion order matters: (double) (x * y) / z is not x * (double) y / z.
+        float y2 = 0.1f;
+        double z2 = 3;
+        System.out.println("short 3 * 0.1f / 3d = " + (3 * y2 / z2) + ", with a double product " + (3 * (double) y2 / z2));
+
+        System.out.println(mismatches == 0 ? "All kernels match the Java expressions" : mismatches + " mismatches");
+        if (mismatches != 0) System.exit(1);
+    }
+
+    private static int check(String kernel, int i, int expected, int actual) {
+        if (expected == actual) return 0;
+        System.out.println(kernel + " [" + i + "]: expected " + expected + ", got " + actual);
+        return 1;
+    }
+
+    private static int check(String kernel, int i, float expected, float actual) {
+        if (Float.floatToIntBits(expected) == Float.floatToIntBits(actual)) return 0;
+        System.out.println(kernel + " [" + i + "]: expected " + expected + ", got " + actual);
+        return 1;
+    }
+
+    private static int check(String kernel, int i, double expected, double actual) {
+        if (Double.doubleToLongBits(expected) == Double.doubleToLongBits(actual)) return 0;
+        System.out.println(kernel + " [" + i + "]: expected " + expected + ", got " + actual);
+        return 1;
+    }
+
+    private static short[] shorts(int elements, Random random) {
+        short[] values = new short[elements];
+        for (int i = 0; i < elements; i++) {
+            values[i] = random.nextInt(8) == 0 ? SHORT_EDGES[random.nextInt(SHORT_EDGES.length)] : (short) random.nextInt();
+        }
+        return values;
+    }
+
+    private static float[] floats(int elements, Random random) {
+        float[] values = new float[elements];
+        for (int i = 0; i < elements; i++) {
+            values[i] = random.nextInt(8) == 0 ? FLOAT_EDGES[random.nextInt(FLOAT_EDGES.length)]
+                : random.nextBoolean() ? (random.nextFloat() - 0.5f) * 70_000 : Float.intBitsToFloat(random.nextInt());
+        }
+        return values;
+    }
+
+    private static double[] doubles(int elements, Random random) {
+        double[] values = new double[elements];
+        for (int i = 0; i < elements; i++) {
+            values[i] = random.nextInt(8) == 0 ? DOUBLE_EDGES[random.nextInt(DOUBLE_EDGES.length)]
+                : random.nextBoolean() ? random.nextGaussian() * 1e4 : Double.longBitsToDouble(random.nextLong());
+        }
+        return values;
+    }
+}
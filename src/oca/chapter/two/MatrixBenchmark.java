@@ -0,0 +1,85 @@
+package oca.chapter.two;
+
+import java.util.Random;
+
+// Sums and transposes of a size x size matrix, as the int[][] of JavaStatements against IntMatrix:
+// - sum, row by row: the nested for-each of JavaStatements against one flat loop over the IntMatrix block.
+// - sum, column by column: every cell of a column is in another row array (or 'size' ints away), a new cache line per cell.
+// - transpose: the jagged copy reads rows and writes columns cell by cell, IntMatrix.transpose() copies tile by tile.
+// The rows of the int[][] are allocated one after the other here, so they happen to sit next to each other in memory and the
+// row by row sums come out the same. The difference is in the column walks and above all the transpose (about 5x with a 4096
+// matrix). In a long-running program the GC can move the rows apart, and the jagged numbers get worse.
+// java -Xmx2g oca.chapter.two.MatrixBenchmark [size]
+public class MatrixBenchmark {
+
+    public static void main(String... args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 4_096;
+        Random random = new Random(3);
+        int[][] jagged = new int[size][size];
+        for (int[] row : jagged) {
+            for (int c = 0; c < size; c++) row[c] = random.nextInt(100);
+        }
+        IntMatrix flat = IntMatrix.of(jagged);
+        IntMatrix offHeap = IntMatrix.offHeap(size, size);
+        flat.forEach(offHeap::set);
+
+        for (int round = 0; round < 3; round++) {
+            System.out.println("\n----------------round " + round + "----------------\n");
+
+            long start = System.nanoTime();
+            long expected = 0;
+            for (int[] row : jagged) {
+                for (int value : row) expected += value;
+            }
+            report("int[][] sum by row", start, expected);
+
+            start = System.nanoTime();
+            long sum = 0;
+            for (int c = 0; c < size; c++) {
+                for (int[] row : jagged) sum += row[c];
+            }
+            report("int[][] sum by column", start, check(expected, sum));
+
+            start = System.nanoTime();
+            report("IntMatrix sum", start, check(expected, flat.sum()));
+
+            start = System.nanoTime();
+            sum = 0;
+            for (int c = 0; c < size; c++) sum += flat.column(c).sum();
+            report("IntMatrix sum by column", start, check(expected, sum));
+
+            start = System.nanoTime();
+            report("IntMatrix parallelSum", start, check(expected, flat.parallelSum()));
+
+            start = System.nanoTime();
+            report("off heap sum", start, check(expected, offHeap.sum()));
+
+            System.out.println();
+
+            start = System.nanoTime();
+            int[][] transposed = new int[size][size];
+            for (int r = 0; r < size; r++) {
+                for (int c = 0; c < size; c++) transposed[c][r] = jagged[r][c];
+            }
+            report("int[][] transpose", start, transposed[size - 1][0]);
+
+            start = System.nanoTime();
+            IntMatrix flatTransposed = flat.transpose();
+            report("IntMatrix transpose", start, check(transposed[size - 1][0], flatTransposed.get(size - 1, 0)));
+
+            start = System.nanoTime();
+            IntMatrix offHeapTransposed = offHeap.transpose();
+            report("off heap transpose", start, check(transposed[size - 1][0], offHeapTransposed.get(size - 1, 0)));
+            check(transposed[size / 2][size / 3], flatTransposed.row(size / 2).get(size / 3));
+        }
+    }
+
+    private static long check(long expected, long actual) {
+        if (expected != actual) throw new AssertionError(expected + " != " + actual);
+        return actual;
+    }
+
+    private static void report(String name, long start, long result) {
+        System.out.printf("%-26s %8.2f ms (%d)%n", name, (System.nanoTime() - start) / 1e6, result);
+    }
+}
@@ -0,0 +1,92 @@
+package oca.chapter.two;
+
+// Element-wise arithmetic over short[], float[] and double[] arrays with the promotion rules of BinaryArithmetic:
+// - short op short is computed as int, then narrowed back to short with a cast (the high 16 bits are dropped).
+// - short op float is computed as float, a float op double is computed as double.
+// - x * y / z with a short x, a float y and a double z is (double) (x * y) / z: the product is rounded to float first,
+//   computing it as x * (double) y / z gives a different result for many inputs.
+// - a float narrowed to short goes through int: NaN becomes 0, values outside the int range are clamped to MIN/MAX_VALUE, then
+//   the int is cut to its low 16 bits (so (short) 40000f is -25536, not Short.MAX_VALUE).
+// Each kernel is one counted loop with no calls and no branches, after checking all the lengths up front. That's the shape
+// C2's auto-vectorizer (SuperWord) turns into SIMD instructions for the same-type kernels (short, float and double add, sub
+// and mul, float and double div), with the scalar loop as the fallback for what it can't vectorize (integer division and the
+// conversions of the mixed kernels). KernelOracle checks every kernel against the plain Java expression.
+public final class NarrowKernels {
+
+    private NarrowKernels() { }
+
+    public static void add(short[] a, short[] b, short[] out) {
+        int n = length(out.length, a.length, b.length);
+        for (int i = 0; i < n; i++) out[i] = (short) (a[i] + b[i]);
+    }
+
+    public static void sub(short[] a, short[] b, short[] out) {
+        int n = length(out.length, a.length, b.length);
+        for (int i = 0; i < n; i++) out[i] = (short) (a[i] - b[i]);
+    }
+
+    public static void mul(short[] a, short[] b, short[] out) {
+        int n = length(out.length, a.length, b.length);
+        for (int i = 0; i < n; i++) out[i] = (short) (a[i] * b[i]);
+    }
+
+    // Throws ArithmeticException at the first zero in b, like a[i] / b[i] does, the cells before it are already written.
+    public static void div(short[] a, short[] b, short[] out) {
+        int n = length(out.length, a.length, b.length);
+        for (int i = 0; i < n; i++) out[i] = (short) (a[i] / b[i]); // MIN_VALUE / -1 is 32768 as int, -32768 as short
+    }
+
+    // Keeps the int result of a + b, no overflow.
+    public static void addWide(short[] a, short[] b, int[] out) {
+        int n = length(out.length, a.length, b.length);
+        for (int i = 0; i < n; i++) out[i] = a[i] + b[i];
+    }
+
+    public static void add(float[] a, float[] b, float[] out) {
+        int n = length(out.length, a.length, b.length);
+        for (int i = 0; i < n; i++) out[i] = a[i] + b[i];
+    }
+
+    public static void mul(float[] a, float[] b, float[] out) {
+        int n = length(out.length, a.length, b.length);
+        for (int i = 0; i < n; i++) out[i] = a[i] * b[i];
+    }
+
+    public static void div(float[] a, float[] b, float[] out) {
+        int n = length(out.length, a.length, b.length);
+        for (int i = 0; i < n; i++) out[i] = a[i] / b[i];
+    }
+
+    public static void add(double[] a, double[] b, double[] out) {
+        int n = length(out.length, a.length, b.length);
+        for (int i = 0; i < n; i++) out[i] = a[i] + b[i];
+    }
+
+    public static void mul(double[] a, double[] b, double[] out) {
+        int n = length(out.length, a.length, b.length);
+        for (int i = 0; i < n; i++) out[i] = a[i] * b[i];
+    }
+
+    public static void div(double[] a, double[] b, double[] out) {
+        int n = length(out.length, a.length, b.length);
+        for (int i = 0; i < n; i++) out[i] = a[i] / b[i];
+    }
+
+    // out = (short) (a * factor), computed as float.
+    public static void scale(short[] a, float factor, short[] out) {
+        int n = length(out.length, a.length, a.length); // a twice, there's no second array
+        for (int i = 0; i < n; i++) out[i] = (short) (a[i] * factor);
+    }
+
+    // out = x * y / z, the 'double r = x * y / z' of BinaryArithmetic.
+    public static void mulDiv(short[] x, float[] y, double[] z, double[] out) {
+        int n = length(out.length, x.length, y.length);
+        if (z.length != n) throw new IllegalArgumentException("Different lengths: " + n + " and " + z.length);
+        for (int i = 0; i < n; i++) out[i] = x[i] * y[i] / z[i];
+    }
+
+    private static int length(int out, int a, int b) {
+        if (a != out || b != out) throw new IllegalArgumentException("Different lengths: " + a + ", " + b + " and " + out);
+        return out;
+    }
+}
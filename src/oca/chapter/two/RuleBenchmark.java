@@ -0,0 +1,177 @@
+package oca.chapter.two;
+
+import java.lang.invoke.MethodHandle;
+import java.util.*;
+import java.util.function.Consumer;
+
+// The switch(y) of JavaStatements rebuilt with RuleSwitch, then a routing rule set (values, ranges, a group and fall-through)
+// timed three ways against the same rules written by hand as an if/else-if chain:
+// - if/else: the chain tests the rules in order, a key that matches a late rule (or none) pays for every test before it.
+// - RuleSwitch.apply(): one jump table lookup (or binary search) and a loop over the matched chain of actions.
+// - MethodHandle: the guardWithTest tree of toMethodHandle() in a static final field, inlined into the caller.
+// With these 16 rules the if/else chain is still the fastest: the 14 actions called by apply() make its action call site
+// megamorphic, and the MethodHandle tree pays for log2(25 segments) tests on random keys. The second part has 400 rules with one
+// action class, where testing the rules in order costs hundreds of compares per key and the jump table stays flat.
+// java oca.chapter.two.RuleBenchmark [keys]
+public class RuleBenchmark {
+
+    private static final RuleSwitch<int[]> ROUTES = routes();
+    private static final MethodHandle ROUTES_HANDLE = ROUTES.toMethodHandle();
+
+    public static void main(String... args) throws Throwable {
+        RuleSwitch<StringBuilder> days = RuleSwitch.<StringBuilder>builder()
+            .when(0).then(out -> out.append("Monday... "))
+            .otherwise().then(out -> out.append("Weekday. "))
+            .when(10).then(out -> out.append("Friday!")).thenBreak()
+            .build();
+        for (int y : new int[] { 10, 0, 5 }) { // Same output of the switch(y) of JavaStatements for each y
+            StringBuilder out = new StringBuilder();
+            days.apply(y, out);
+            System.out.println("y = " + y + ": " + out);
+        }
+        System.out.println(days);
+        System.out.println(ROUTES);
+
+        System.out.println("\n----------------------------------------\n");
+
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int[] labels = { 0, 5, 10, 150, 250, 304, 401, 404, 450, 500, 502, 503, 550, 1000, 2000, 3500, 9999 };
+        int[] keys = new int[size];
+        Random random = new Random(2);
+        for (int i = 0; i < size; i++) keys[i] = labels[random.nextInt(labels.length)];
+
+        for (int round = 0; round < 5; round++) {
+            System.out.println("\n----------------round " + round + "----------------\n");
+
+            int[] expected = new int[14];
+            long start = System.nanoTime();
+            for (int key : keys) ifElse(key, expected);
+            report("if/else chain", start, size);
+
+            int[] counters = new int[14];
+            start = System.nanoTime();
+            for (int key : keys) ROUTES.apply(key, counters);
+            report("RuleSwitch.apply()", start, size);
+            check(expected, counters);
+
+            counters = new int[14];
+            start = System.nanoTime();
+            for (int key : keys) ROUTES_HANDLE.invokeExact(key, (Object) counters);
+            report("MethodHandle tree", start, size);
+            check(expected, counters);
+        }
+
+        System.out.println("\n----------------------------------------\n");
+
+        // Hundreds of rules: 'rules' ranges of 5 keys, 10 apart. All the actions are the same lambda (with a different
+        // captured index), so the action call stays monomorphic and the time is the cost of finding the rule.
+        int rules = 400;
+        int[][] ranges = new int[rules][];
+        RuleSwitch.Builder<int[]> builder = RuleSwitch.builder();
+        for (int r = 0; r < rules; r++) {
+            ranges[r] = new int[] { r * 10, r * 10 + 4 };
+            builder.whenBetween(r * 10, r * 10 + 4).then(count(r)).thenBreak();
+        }
+        RuleSwitch<int[]> many = builder.build();
+        System.out.println(many);
+        for (int i = 0; i < size; i++) keys[i] = random.nextInt(rules * 10);
+
+        for (int round = 0; round < 5; round++) {
+            System.out.println("\n----------------round " + round + "----------------\n");
+
+            int[] expected = new int[rules];
+            long start = System.nanoTime();
+            for (int key : keys) inOrder(key, ranges, expected);
+            report("rules in order", start, size);
+
+            int[] counters = new int[rules];
+            start = System.nanoTime();
+            for (int key : keys) many.apply(key, counters);
+            report("RuleSwitch.apply()", start, size);
+            check(expected, counters);
+        }
+    }
+
+    private static Consumer<int[]> count(int rule) {
+        return c -> c[rule]++;
+    }
+
+    // What an if/else-if chain of all the rules does: test them one by one until one matches.
+    private static void inOrder(int key, int[][] ranges, int[] counters) {
+        for (int r = 0; r < ranges.length; r++) {
+            if (key >= ranges[r][0] && key <= ranges[r][1]) {
+                counters[r]++;
+                return;
+            }
+        }
+    }
+
+    private static RuleSwitch<int[]> routes() {
+        return RuleSwitch.<int[]>builder()
+            .when(0).then(c -> c[0]++)
+            .otherwise().then(c -> c[1]++)
+            .when(10).then(c -> c[2]++).thenBreak()
+            .whenBetween(100, 199).then(c -> c[3]++).thenBreak()
+            .whenBetween(200, 299).then(c -> c[4]++)
+            .when(304).then(c -> c[5]++).thenBreak()
+            .whenBetween(400, 403).then(c -> c[6]++).thenBreak()
+            .when(404).then(c -> c[7]++).thenBreak()
+            .whenBetween(405, 499).then(c -> c[8]++).thenBreak()
+            .when(500)
+            .when(502)
+            .when(503).then(c -> c[9]++).thenBreak()
+            .whenBetween(504, 599).then(c -> c[10]++).thenBreak()
+            .when(1000).then(c -> c[11]++)
+            .when(2000).then(c -> c[12]++).thenBreak()
+            .whenBetween(3000, 3999).then(c -> c[13]++).thenBreak()
+            .build();
+    }
+
+    // The same rules by hand, the fall-through is written out by repeating the actions of the next cases.
+    private static void ifElse(int key, int[] c) {
+        if (key == 0) {
+            c[0]++;
+            c[1]++;
+            c[2]++;
+        } else if (key == 10) {
+            c[2]++;
+        } else if (key >= 100 && key <= 199) {
+            c[3]++;
+        } else if (key >= 200 && key <= 299) {
+            c[4]++;
+            c[5]++;
+        } else if (key == 304) {
+            c[5]++;
+        } else if (key >= 400 && key <= 403) {
+            c[6]++;
+        } else if (key == 404) {
+            c[7]++;
+        } else if (key >= 405 && key <= 499) {
+            c[8]++;
+        } else if (key == 500 || key == 502 || key == 503) {
+            c[9]++;
+        } else if (key >= 504 && key <= 599) {
+            c[10]++;
+        } else if (key == 1000) {
+            c[11]++;
+            c[12]++;
+        } else if (key == 2000) {
+            c[12]++;
+        } else if (key >= 3000 && key <= 3999) {
+            c[13]++;
+        } else {
+            c[1]++;
+            c[2]++;
+        }
+    }
+
+    private static void check(int[] expected, int[] counters) {
+        if (!Arrays.equals(expected, counters)) {
+            throw new AssertionError(Arrays.toString(expected) + " != " + Arrays.toString(counters));
+        }
+    }
+
+    private static void report(String name, long start, int keys) {
+        System.out.printf("%-20s %6.2f ns/key%n", name, (double) (System.nanoTime() - start) / keys);
+    }
+}
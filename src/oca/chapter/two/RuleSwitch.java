@@ -0,0 +1,238 @@
+package oca.chapter.two;
+
+import java.lang.invoke.*;
+import java.util.*;
+import java.util.function.Consumer;
+
+// A switch statement built at runtime: cases with int values or ranges, an optional default anywhere in the order, and the same
+// fall-through rules of the switch in JavaStatements (a matching case runs its actions and the actions of the next cases until
+// it finds a break, an empty case just falls into the next one, so 'case 500: case 502: case 503:' is a group).
+//
+//   RuleSwitch<StringBuilder> days = RuleSwitch.<StringBuilder>builder()
+//       .when(0).then(out -> out.append("Monday..."))
+//       .otherwise().then(out -> out.append("Weekday."))
+//       .when(10).then(out -> out.append("Friday!")).thenBreak()
+//       .build();
+//
+// build() compiles the cases once:
+// - each case gets its fall-through chain as one flat array of actions, nothing is looked up at apply() time.
+// - the labels are turned into sorted, non-overlapping segments (the gaps go to the default case), then into a jump table
+//   (int[] indexed by key - min) when the labels are dense enough, or into a binary search over the segment starts.
+// - toMethodHandle() turns the segments into a balanced tree of guardWithTest with the chains at the leaves. Kept in a static
+//   final field, the JIT sees the whole tree as constant and inlines it like hand-written if/else code.
+// Duplicate or overlapping labels throw IllegalArgumentException, like duplicate case labels don't compile.
+public final class RuleSwitch<C> {
+
+    private static final int DENSE_MIN = 4_096; // A table of up to 4096 ints (16 KB) is always fine
+    private static final Consumer<?>[] NOTHING = new Consumer<?>[0];
+    private static final MethodHandle ACCEPT;
+    private static final MethodHandle AT_LEAST;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            ACCEPT = lookup.findVirtual(Consumer.class, "accept", MethodType.methodType(void.class, Object.class));
+            AT_LEAST = lookup.findStatic(RuleSwitch.class, "atLeast", MethodType.methodType(boolean.class, int.class, int.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final Consumer<? super C>[][] chains; // Fall-through chain of each case, by case index
+    private final int defaultCase;                // -1 when there's no default
+    private final int[] starts;                   // Segment i covers [starts[i], starts[i + 1] - 1], starts[0] is MIN_VALUE
+    private final int[] targets;                  // Case index of each segment, -1 for nothing
+    private final int[] table;                    // Case index by key - min, null when the labels are too sparse
+    private final int min;
+
+    private RuleSwitch(Consumer<? super C>[][] chains, int defaultCase, int[] starts, int[] targets, int[] table, int min) {
+        this.chains = chains;
+        this.defaultCase = defaultCase;
+        this.starts = starts;
+        this.targets = targets;
+        this.table = table;
+        this.min = min;
+    }
+
+    public static <C> Builder<C> builder() {
+        return new Builder<>();
+    }
+
+    public void apply(int key, C context) {
+        int target = caseOf(key);
+        if (target < 0) return;
+        for (Consumer<? super C> action : chains[target]) action.accept(context);
+    }
+
+    // The index of the case that matches the key (in the order they were added), -1 when nothing matches.
+    public int caseOf(int key) {
+        if (table != null) {
+            long index = (long) key - min; // long: key - min can overflow for keys far from the labels
+            return index >= 0 && index < table.length ? table[(int) index] : defaultCase;
+        }
+        int segment = Arrays.binarySearch(starts, key);
+        return targets[segment >= 0 ? segment : -segment - 2]; // Not found: the segment that starts before the key
+    }
+
+    // A (int, Object)void handle with the behavior of apply(), the context is passed as Object.
+    public MethodHandle toMethodHandle() {
+        MethodType type = MethodType.methodType(void.class, int.class, Object.class);
+        MethodHandle[] leaves = new MethodHandle[chains.length];
+        for (int c = 0; c < chains.length; c++) {
+            MethodHandle chain = MethodHandles.empty(type);
+            for (int a = chains[c].length - 1; a >= 0; a--) { // foldArguments runs the combiner first, so build from the last
+                MethodHandle action = MethodHandles.dropArguments(ACCEPT.bindTo(chains[c][a]), 0, int.class);
+                chain = MethodHandles.foldArguments(chain, action);
+            }
+            leaves[c] = chain;
+        }
+        return tree(0, starts.length, leaves, MethodHandles.empty(type));
+    }
+
+    private MethodHandle tree(int from, int to, MethodHandle[] leaves, MethodHandle nothing) {
+        if (to - from == 1) return targets[from] < 0 ? nothing : leaves[targets[from]];
+        int middle = (from + to) >>> 1;
+        MethodHandle test = MethodHandles.dropArguments(MethodHandles.insertArguments(AT_LEAST, 1, starts[middle]), 1, Object.class);
+        return MethodHandles.guardWithTest(test, tree(middle, to, leaves, nothing), tree(from, middle, leaves, nothing));
+    }
+
+    // A generic array can't be created directly. These arrays only ever hold Consumer<? super C>, the casts can't fail.
+    @SuppressWarnings("unchecked")
+    private static <C> Consumer<? super C>[][] newChains(int count) {
+        return (Consumer<? super C>[][]) new Consumer<?>[count][];
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <C> Consumer<? super C>[] toChain(List<Consumer<? super C>> chain) {
+        if (chain.isEmpty()) return (Consumer<? super C>[]) NOTHING;
+        return chain.toArray((Consumer<? super C>[]) new Consumer<?>[chain.size()]);
+    }
+
+    private static boolean atLeast(int key, int start) {
+        return key >= start;
+    }
+
+    @Override
+    public String toString() {
+        return "RuleSwitch[" + chains.length + " cases, " + (starts.length) + " segments, "
+            + (table != null ? "jump table of " + table.length : "binary search") + "]";
+    }
+
+    public static final class Builder<C> {
+
+        private final List<Case<C>> cases = new ArrayList<>();
+        private int defaultCase = -1;
+
+        private Builder() { }
+
+        // A new case that matches any of the values.
+        public Builder<C> when(int... values) {
+            Case<C> next = next();
+            for (int value : values) next.labels.add(new int[] { value, value });
+            return this;
+        }
+
+        // A new case that matches from 'from' to 'to', both inclusive.
+        public Builder<C> whenBetween(int from, int to) {
+            if (from > to) throw new IllegalArgumentException("Empty range: " + from + ".." + to);
+            next().labels.add(new int[] { from, to });
+            return this;
+        }
+
+        // The default case, it's reached by the keys that no other case matches (and by fall-through, like any other case).
+        public Builder<C> otherwise() {
+            if (defaultCase >= 0) throw new IllegalArgumentException("Duplicate default case");
+            next();
+            defaultCase = cases.size() - 1;
+            return this;
+        }
+
+        // Throws IllegalStateException after thenBreak(): in a switch the statements after a break are unreachable.
+        public Builder<C> then(Consumer<? super C> action) {
+            if (current().breaks) throw new IllegalStateException("Action after thenBreak(), it would never run");
+            current().actions.add(Objects.requireNonNull(action));
+            return this;
+        }
+
+        public Builder<C> thenBreak() {
+            current().breaks = true;
+            return this;
+        }
+
+        public RuleSwitch<C> build() {
+            int count = cases.size();
+            Consumer<? super C>[][] chains = newChains(count);
+            List<Consumer<? super C>> chain = new ArrayList<>();
+            for (int c = count - 1; c >= 0; c--) { // From the last case, so each chain is its actions + the chain of the next
+                Case<C> current = cases.get(c);
+                if (current.breaks) chain.clear();
+                chain.addAll(0, current.actions);
+                chains[c] = toChain(chain);
+            }
+
+            List<int[]> labels = new ArrayList<>(); // {from, to, case}
+            for (int c = 0; c < count; c++) {
+                for (int[] label : cases.get(c).labels) labels.add(new int[] { label[0], label[1], c });
+            }
+            labels.sort(Comparator.comparingInt(label -> label[0]));
+
+            // Segments over the whole int range: the labels in order, with the gaps between them going to the default case.
+            int[] starts = new int[labels.size() * 2 + 1];
+            int[] targets = new int[starts.length];
+            int segments = 0;
+            long next = Integer.MIN_VALUE; // First key not covered yet, long so MAX_VALUE + 1 doesn't overflow
+            for (int[] label : labels) {
+                if (label[0] < next) {
+                    throw new IllegalArgumentException("Label " + label[0] + ".." + label[1] + " overlaps another label");
+                }
+                if (label[0] > next) segments = add(starts, targets, segments, (int) next, defaultCase);
+                segments = add(starts, targets, segments, label[0], label[2]);
+                next = label[1] + 1L;
+            }
+            if (next <= Integer.MAX_VALUE) segments = add(starts, targets, segments, (int) next, defaultCase);
+            starts = Arrays.copyOf(starts, segments);
+            targets = Arrays.copyOf(targets, segments);
+
+            int[] table = null;
+            int min = 0;
+            if (!labels.isEmpty()) {
+                min = labels.get(0)[0];
+                long span = labels.get(labels.size() - 1)[1] - (long) min + 1;
+                if (span <= Math.max(DENSE_MIN, 8L * segments)) {
+                    table = new int[(int) span];
+                    for (int s = 0; s < segments; s++) {
+                        long from = Math.max(starts[s], min) - (long) min;
+                        long to = s + 1 < segments ? Math.min(starts[s + 1] - (long) min, span) : span;
+                        if (from < to) Arrays.fill(table, (int) from, (int) to, targets[s]);
+                    }
+                }
+            }
+            return new RuleSwitch<>(chains, defaultCase, starts, targets, table, min);
+        }
+
+        // Appends a segment, or extends the previous one when it goes to the same case.
+        private static int add(int[] starts, int[] targets, int segments, int start, int target) {
+            if (segments > 0 && targets[segments - 1] == target) return segments;
+            starts[segments] = start;
+            targets[segments] = target;
+            return segments + 1;
+        }
+
+        private Case<C> next() {
+            Case<C> next = new Case<>();
+            cases.add(next);
+            return next;
+        }
+
+        private Case<C> current() {
+            if (cases.isEmpty()) throw new IllegalStateException("No case yet, call when(), whenBetween() or otherwise() first");
+            return cases.get(cases.size() - 1);
+        }
+    }
+
+    private static final class Case<C> {
+        final List<int[]> labels = new ArrayList<>();
+        final List<Consumer<? super C>> actions = new ArrayList<>();
+        boolean breaks;
+    }
+}
@@ -0,0 +1,114 @@
+package ocp.chapter.eight;
+
+import java.util.Random;
+
+// getHeight() of PolymorphismOverridingExample (overridden, chosen at runtime by the object) against HidingExample (static and
+// hidden, chosen at compile time by the reference type), with one or four Penguin types reaching the same call site:
+// - overridden, 1 type: the call site is monomorphic, C2 inlines getHeight() behind a class check.
+// - overridden, 4 types: megamorphic, a virtual call per element.
+// - hidden: always the static getHeight() of the reference type, no dispatch (C2 even folds the loop to a constant),
+//   but also the wrong height for the subtypes (that's what hiding means).
+// - field: the height is data in the base class instead of behavior in the subclasses, no dispatch and the right answer.
+// The nested classes have their own names, so they don't shadow the Penguin classes of the examples in this package.
+// java ocp.chapter.eight.HeightBenchmark [elements]
+public class HeightBenchmark {
+
+    static class OverridingPenguin {
+        public int getHeight() { return 3; }
+    }
+
+    static class OverridingEmperor extends OverridingPenguin {
+        public int getHeight() { return 8; }
+    }
+
+    static class OverridingKing extends OverridingPenguin {
+        public int getHeight() { return 7; }
+    }
+
+    static class OverridingGentoo extends OverridingPenguin {
+        public int getHeight() { return 5; }
+    }
+
+    static class HiddenPenguin {
+        public static int getHeight() { return 3; }
+    }
+
+    static class HiddenEmperor extends HiddenPenguin {
+        public static int getHeight() { return 8; }
+    }
+
+    static class MeasuredPenguin {
+        private final int height;
+
+        MeasuredPenguin(int height) { this.height = height; }
+
+        public final int getHeight() { return height; } // final: nothing to dispatch
+    }
+
+    public static void main(String... args) {
+        int elements = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        Random random = new Random(8);
+        OverridingPenguin[] emperors = new OverridingPenguin[elements];
+        OverridingPenguin[] mixed = new OverridingPenguin[elements];
+        HiddenPenguin[] hidden = new HiddenPenguin[elements];
+        MeasuredPenguin[] measured = new MeasuredPenguin[elements];
+        int[] heights = { 3, 8, 7, 5 };
+        for (int i = 0; i < elements; i++) {
+            int type = random.nextInt(4);
+            emperors[i] = new OverridingEmperor();
+            mixed[i] = type == 0 ? new OverridingPenguin() : type == 1 ? new OverridingEmperor() : type == 2 ? new OverridingKing() : new OverridingGentoo();
+            hidden[i] = type == 1 ? new HiddenEmperor() : new HiddenPenguin();
+            measured[i] = new MeasuredPenguin(heights[type]);
+        }
+
+        for (int round = 0; round < 5; round++) {
+            System.out.println("\n----------------round " + round + "----------------\n");
+
+            long start = System.nanoTime();
+            long sum = overriddenOneType(emperors);
+            report("overridden, 1 type", start, elements, sum);
+
+            start = System.nanoTime();
+            sum = overriddenFourTypes(mixed);
+            report("overridden, 4 types", start, elements, sum);
+
+            start = System.nanoTime();
+            sum = hidden(hidden);
+            report("hidden (wrong heights)", start, elements, sum);
+
+            start = System.nanoTime();
+            sum = field(measured);
+            report("field, 4 heights", start, elements, sum);
+        }
+    }
+
+    // Each case has its own loop, the type profile of a call site is shared by every caller of the method.
+    private static long overriddenOneType(OverridingPenguin[] penguins) {
+        long sum = 0;
+        for (OverridingPenguin penguin : penguins) sum += penguin.getHeight();
+        return sum;
+    }
+
+    private static long overriddenFourTypes(OverridingPenguin[] penguins) {
+        long sum = 0;
+        for (OverridingPenguin penguin : penguins) sum += penguin.getHeight();
+        return sum;
+    }
+
+    private static long hidden(HiddenPenguin[] penguins) {
+        long sum = 0;
+        // penguin.getHeight() compiles to this call (with a [static] warning): the reference type decides, always 3
+        for (HiddenPenguin penguin : penguins) sum += HiddenPenguin.getHeight();
+        return sum;
+    }
+
+    private static long field(MeasuredPenguin[] penguins) {
+        long sum = 0;
+        for (MeasuredPenguin penguin : penguins) sum += penguin.getHeight();
+        return sum;
+    }
+
+    private static void report(String name, long start, int elements, long sum) {
+        System.out.printf("%-24s %6.2f ns/op (%d)%n", name, (double) (System.nanoTime() - start) / elements, sum);
+    }
+}
@@ -1,5 +1,8 @@
 module zoo.animal.care {
     exports zoo.animal.care.medical;
     
-    requires zoo.animal.feeding;
-}
\ No newline at end of file
+    requires transitive zoo.animal.feeding;
+    requires transitive zoo.staff;
+
+    provides zoo.staff.spi.Capability with zoo.animal.care.medical.MedicalCapability;
+}
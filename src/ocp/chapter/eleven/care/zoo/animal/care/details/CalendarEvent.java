@@ -0,0 +1,24 @@
+package zoo.animal.care.details;
+
+import java.time.LocalDate;
+
+// One occurrence of a yearly event, created only when a query reaches it.
+public final class CalendarEvent {
+    private final long animalId;
+    private final EventType type;
+    private final LocalDate date;
+
+    CalendarEvent(long animalId, EventType type, LocalDate date) {
+        this.animalId = animalId;
+        this.type = type;
+        this.date = date;
+    }
+
+    public long getAnimalId() { return animalId; }
+    public EventType getType() { return type; }
+    public LocalDate getDate() { return date; }
+
+    public String toString() {
+        return type + "[animal=" + animalId + ", " + date + "]";
+    }
+}
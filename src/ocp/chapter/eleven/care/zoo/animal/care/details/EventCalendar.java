@@ -0,0 +1,111 @@
+package zoo.animal.care.details;
+
+import java.time.*;
+import java.util.*;
+import java.util.function.*;
+import java.util.stream.*;
+import zoo.animal.feeding.Task;
+
+// Yearly events (birthdays, check-ups) for many animals, indexed by day of the year.
+// - There are 366 buckets, numbered like the days of a leap year, so February 29 has its own bucket (59).
+//   In non-leap years the February 29 events happen on February 28.
+// - Each bucket keeps the events in two parallel primitive arrays (animal ids and event type ordinals), no object per event.
+// - A window query walks the days of the window and reads only the buckets of those days, so it costs O(days + results),
+//   and the CalendarEvents (and Tasks) are created one by one while the Stream is consumed, the full list never exists.
+// Adding events is not thread-safe (like an ArrayList), fill the calendar before sharing it with query threads.
+public class EventCalendar {
+
+    private static final int DAYS = 366;
+    private static final int FEB_29 = 59;
+    private static final EventType[] TYPES = EventType.values();
+
+    private final Bucket[] buckets = new Bucket[DAYS];
+    private long size;
+
+    public EventCalendar() {
+        for (int i = 0; i < DAYS; i++) buckets[i] = new Bucket();
+    }
+
+    public void add(long animalId, EventType type, MonthDay day) {
+        buckets[slot(day.getMonthValue(), day.getDayOfMonth())].add(animalId, (byte) type.ordinal());
+        size++;
+    }
+
+    public void addBirthday(long animalId, LocalDate birthDate) {
+        add(animalId, EventType.BIRTHDAY, MonthDay.from(birthDate));
+    }
+
+    public long size() {
+        return size;
+    }
+
+    // Events between from and to, both inclusive, ordered by date.
+    public Stream<CalendarEvent> events(LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) throw new IllegalArgumentException(to + " is before " + from);
+        return StreamSupport.stream(new WindowSpliterator(from, to), false);
+    }
+
+    // The feeding Task of each event in the window, due on the event day at the given time.
+    public Stream<Task> tasks(LocalDate from, LocalDate to, LongToIntFunction enclosureOf, LocalTime time, ZoneId zone) {
+        return events(from, to).map(e -> new Task(e.getAnimalId(), enclosureOf.applyAsInt(e.getAnimalId()),
+            e.getType().getFood(), e.getType().getQuantity(), e.getDate().atTime(time).atZone(zone).toInstant().toEpochMilli()));
+    }
+
+    private static int slot(int month, int dayOfMonth) {
+        return LocalDate.of(2000, month, dayOfMonth).getDayOfYear() - 1; // 2000 is a leap year
+    }
+
+    private static int slot(LocalDate date) {
+        int slot = date.getDayOfYear() - 1;
+        return !date.isLeapYear() && slot >= FEB_29 ? slot + 1 : slot; // Skips the February 29 bucket
+    }
+
+    private static final class Bucket {
+        long[] animalIds = new long[4];
+        byte[] types = new byte[4];
+        int size;
+
+        void add(long animalId, byte type) {
+            if (size == animalIds.length) {
+                animalIds = Arrays.copyOf(animalIds, size * 2);
+                types = Arrays.copyOf(types, size * 2);
+            }
+            animalIds[size] = animalId;
+            types[size] = type;
+            size++;
+        }
+    }
+
+    private final class WindowSpliterator extends Spliterators.AbstractSpliterator<CalendarEvent> {
+        private final LocalDate last;
+        private LocalDate date;
+        private int slot;
+        private int index;
+
+        WindowSpliterator(LocalDate from, LocalDate to) {
+            super(Long.MAX_VALUE, ORDERED | NONNULL | IMMUTABLE);
+            this.date = from;
+            this.last = to;
+            this.slot = slot(from);
+        }
+
+        public boolean tryAdvance(Consumer<? super CalendarEvent> action) {
+            while (!date.isAfter(last)) {
+                Bucket bucket = buckets[slot];
+                if (index < bucket.size) {
+                    action.accept(new CalendarEvent(bucket.animalIds[index], TYPES[bucket.types[index]], date));
+                    index++;
+                    return true;
+                }
+                index = 0;
+                if (slot == FEB_29 - 1 && !date.isLeapYear()) { // February 28 of a non-leap year: the February 29 events come next
+                    slot = FEB_29;
+                    continue;
+                }
+                date = date.plusDays(1);
+                slot = slot(date);
+            }
+            return false;
+        }
+    }
+}
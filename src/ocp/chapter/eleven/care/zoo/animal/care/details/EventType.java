@@ -0,0 +1,18 @@
+package zoo.animal.care.details;
+
+// Kinds of yearly events in the EventCalendar, with what the animal gets fed on that day.
+public enum EventType {
+    BIRTHDAY("birthday cake", 1),
+    CHECK_UP("treat", 2);
+
+    private final String food;
+    private final int quantity;
+
+    private EventType(String food, int quantity) {
+        this.food = food;
+        this.quantity = quantity;
+    }
+
+    public String getFood() { return food; }
+    public int getQuantity() { return quantity; }
+}
@@ -1,7 +1,36 @@
 package zoo.animal.care.details;
 
+import java.time.*;
 import zoo.animal.feeding.*;
 
 public class HippoBirthday {
     private Task task;
+
+    public static void main(String... args) {
+        int animals = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        EventCalendar calendar = new EventCalendar();
+        calendar.addBirthday(1, LocalDate.of(2012, 2, 29)); // A leap day hippo
+        LocalDate start = LocalDate.of(2000, 1, 1);
+        for (long id = 2; id <= animals; id++) {
+            calendar.addBirthday(id, start.plusDays(id % 366));
+            if (id % 4 == 0) calendar.add(id, EventType.CHECK_UP, MonthDay.of(1 + (int) (id % 12), 1));
+        }
+
+        calendar.events(LocalDate.of(2021, 2, 28), LocalDate.of(2021, 3, 1)) // Not a leap year, the leap day birthday is on 02-28
+                .filter(e -> e.getAnimalId() == 1)
+                .forEach(System.out::println); // BIRTHDAY[animal=1, 2021-02-28]
+
+        HippoBirthday birthday = new HippoBirthday();
+        birthday.task = calendar.tasks(LocalDate.of(2024, 2, 29), LocalDate.of(2024, 2, 29), id -> 7, LocalTime.NOON, ZoneOffset.UTC)
+                                .filter(t -> t.getAnimalId() == 1)
+                                .findFirst() // Stops as soon as it's found, the rest of the window is never read
+                                .orElseThrow();
+        System.out.println(birthday.task);
+
+        long begin = System.nanoTime();
+        long count = calendar.events(LocalDate.of(2024, 12, 1), LocalDate.of(2024, 12, 7)).count();
+        System.out.printf("%,d events in the first week of December (%,d in the calendar), %,d us%n",
+            count, calendar.size(), (System.nanoTime() - begin) / 1_000);
+    }
 }
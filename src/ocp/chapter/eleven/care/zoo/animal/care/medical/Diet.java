@@ -1,3 +1,213 @@
 package zoo.animal.care.medical;
 
-public class Diet { }
\ No newline at end of file
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongFunction;
+
+// Diet plan service: computing a plan is expensive, so plans are kept in a size and time bounded cache.
+// - The cache is split in segments by animal id, each one with its own lock, so threads looking up different animals rarely wait.
+// - Each segment is a segmented LRU: new plans go to 'probation', a plan read again is promoted to 'protected' (80% of the
+//   segment). When the segment is full, the oldest probation plan is evicted first, so animals looked up only once (a scan)
+//   can't push the hot animals out of the cache.
+// - Plans expire 'ttl' after they were computed. After 80% of the ttl a lookup still returns the cached plan, but the plan
+//   is recomputed on the refresh executor (refresh-ahead), so hot animals never wait for a recomputation.
+// Two threads missing the same animal at the same time may both compute the plan, the last one to finish is kept.
+public class Diet {
+
+    private static final int SEGMENTS = 16;
+
+    private final LongFunction<DietPlan> planner;
+    private final long ttlNanos;
+    private final long refreshNanos;
+    private final Executor refresher;
+    private final Segment[] segments = new Segment[SEGMENTS];
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder refreshes = new LongAdder();
+
+    public Diet(LongFunction<DietPlan> planner, int maxSize, long ttl, TimeUnit unit, Executor refresher) {
+        if (maxSize < SEGMENTS) throw new IllegalArgumentException("maxSize must be at least " + SEGMENTS + ": " + maxSize);
+        this.planner = Objects.requireNonNull(planner);
+        this.ttlNanos = unit.toNanos(ttl);
+        this.refreshNanos = ttlNanos / 5 * 4;
+        this.refresher = Objects.requireNonNull(refresher);
+        for (int i = 0; i < SEGMENTS; i++) segments[i] = new Segment(maxSize / SEGMENTS);
+    }
+
+    public DietPlan plan(long animalId) {
+        Segment segment = segmentFor(animalId);
+        long now = System.nanoTime();
+        Entry entry = segment.get(animalId);
+        if (entry != null) {
+            long age = now - entry.loadedAt;
+            if (age < ttlNanos) {
+                hits.increment();
+                if (age >= refreshNanos && !entry.refreshing) refreshAhead(segment, animalId, entry);
+                return entry.plan;
+            }
+            expirations.increment();
+        }
+        misses.increment();
+        DietPlan plan = planner.apply(animalId); // Computed outside of the segment lock
+        segment.put(animalId, new Entry(plan, System.nanoTime()));
+        return plan;
+    }
+
+    private void refreshAhead(Segment segment, long animalId, Entry entry) {
+        entry.refreshing = true; // Benign race: at worst two refreshes of the same plan are started.
+        try {
+            refresher.execute(() -> {
+                try {
+                    DietPlan plan = planner.apply(animalId);
+                    segment.replace(animalId, entry, new Entry(plan, System.nanoTime()));
+                    refreshes.increment();
+                } finally {
+                    entry.refreshing = false;
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            entry.refreshing = false; // The plan will be recomputed on the request path when it expires.
+        }
+    }
+
+    public void invalidate(long animalId) {
+        segmentFor(animalId).remove(animalId);
+    }
+
+    public DietStats stats() {
+        int size = 0;
+        for (Segment segment : segments) size += segment.size();
+        return new DietStats(hits.sum(), misses.sum(), evictions.sum(), expirations.sum(), refreshes.sum(), size);
+    }
+
+    private Segment segmentFor(long animalId) {
+        long h = animalId * 0x9E3779B97F4A7C15L; // Spreads sequential ids over all segments
+        return segments[(int) (h >>> 60)];
+    }
+
+    private static final class Entry {
+        final DietPlan plan;
+        final long loadedAt;
+        volatile boolean refreshing;
+
+        Entry(DietPlan plan, long loadedAt) {
+            this.plan = plan;
+            this.loadedAt = loadedAt;
+        }
+    }
+
+    private final class Segment {
+        // accessOrder = true: get() moves the entry to the end, so the first entry is always the least recently used one.
+        private final LinkedHashMap<Long, Entry> probation = new LinkedHashMap<>(16, 0.75f, true);
+        private final LinkedHashMap<Long, Entry> protectedEntries = new LinkedHashMap<>(16, 0.75f, true);
+        private final int maxSize;
+        private final int maxProtected;
+
+        Segment(int maxSize) {
+            this.maxSize = maxSize;
+            this.maxProtected = Math.max(1, maxSize / 5 * 4);
+        }
+
+        synchronized Entry get(long animalId) {
+            Entry entry = protectedEntries.get(animalId);
+            if (entry != null) return entry;
+            entry = probation.remove(animalId);
+            if (entry != null) { // Second hit: promote it, demoting the LRU protected entry back to probation if needed.
+                protectedEntries.put(animalId, entry);
+                if (protectedEntries.size() > maxProtected) {
+                    Map.Entry<Long, Entry> eldest = protectedEntries.entrySet().iterator().next();
+                    protectedEntries.remove(eldest.getKey());
+                    probation.put(eldest.getKey(), eldest.getValue());
+                }
+            }
+            return entry;
+        }
+
+        synchronized void put(long animalId, Entry entry) {
+            if (protectedEntries.containsKey(animalId)) {
+                protectedEntries.put(animalId, entry);
+                return;
+            }
+            probation.put(animalId, entry);
+            while (probation.size() + protectedEntries.size() > maxSize) {
+                LinkedHashMap<Long, Entry> victims = probation.isEmpty() ? protectedEntries : probation;
+                Iterator<Long> eldest = victims.keySet().iterator();
+                eldest.next();
+                eldest.remove();
+                evictions.increment();
+            }
+        }
+
+        synchronized void replace(long animalId, Entry expected, Entry entry) { // Only if it wasn't evicted or replaced meanwhile
+            if (protectedEntries.get(animalId) == expected) protectedEntries.put(animalId, entry);
+            else if (probation.get(animalId) == expected) probation.put(animalId, entry);
+        }
+
+        synchronized void remove(long animalId) {
+            if (protectedEntries.remove(animalId) == null) probation.remove(animalId);
+        }
+
+        synchronized int size() {
+            return probation.size() + protectedEntries.size();
+        }
+
+        synchronized boolean contains(long animalId) { // Unlike get(), doesn't count as a read, so nothing is promoted
+            return protectedEntries.containsKey(animalId) || probation.containsKey(animalId);
+        }
+
+        synchronized boolean isProtected(long animalId) {
+            return protectedEntries.containsKey(animalId);
+        }
+    }
+
+    public static void main(String... args) throws InterruptedException {
+        String[] foods = { "hay", "fish", "meat", "bamboo", "fruit" };
+        ExecutorService refresher = Executors.newSingleThreadExecutor();
+        try {
+            Diet diet = new Diet(animalId -> {
+                try {
+                    Thread.sleep(1); // Pretends the plan is expensive to compute
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return new DietPlan(animalId, foods[(int) (animalId % foods.length)], 1 + (int) (animalId % 5));
+            }, 512, 2, TimeUnit.SECONDS, refresher); // 32 plans per segment
+
+            System.out.println(diet.plan(7)); // DietPlan[animal=7, 3 meat/day]
+
+            Random random = new Random(42);
+            for (int i = 0; i < 5_000; i++) // 90% of the lookups go to 100 hot animals, the rest to 100k cold animals.
+                diet.plan(random.nextInt(10) < 9 ? random.nextInt(100) : 1_000 + random.nextInt(100_000));
+
+            // A scan: twice as many new animals as the cache holds, each looked up once. They only go through probation, so they
+            // evict each other (and the cold animals above) but not the hot animals, which were read again and promoted.
+            int scan = 1_024;
+            long evictions = diet.stats().getEvictions();
+            for (int i = 0; i < scan; i++) diet.plan(1_000_000 + i);
+            int hotProtected = 0;
+            for (int i = 0; i < 100; i++) if (diet.segmentFor(i).isProtected(i)) hotProtected++;
+            int scanCached = 0;
+            for (int i = 0; i < scan; i++) if (diet.segmentFor(1_000_000 + i).contains(1_000_000 + i)) scanCached++;
+            System.out.printf("scan of %,d animals: %,d evicted, %d of them still cached, hot animals protected: %d of 100%n",
+                              scan, diet.stats().getEvictions() - evictions, scanCached, hotProtected);
+            System.out.println("first scanned animal cached: " + diet.segmentFor(1_000_000).contains(1_000_000)
+                               + ", last: " + diet.segmentFor(1_000_000 + scan - 1).contains(1_000_000 + scan - 1));
+            if (hotProtected != 100 || scanCached > 512 - 100) throw new AssertionError("The scan evicted hot animals");
+
+            long lookups = 10_000_000;
+            long start = System.nanoTime();
+            long portions = 0;
+            for (long i = 0; i < lookups; i++) portions += diet.plan(i % 100).getDailyPortions();
+            long elapsed = System.nanoTime() - start;
+
+            System.out.printf("hot lookups: %.1f ns/lookup (%d)%n", (double) elapsed / lookups, portions);
+            System.out.println(diet.stats());
+        } finally {
+            refresher.shutdown();
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package zoo.animal.care.medical;
+
+import zoo.animal.feeding.Task;
+
+// The daily diet computed for one animal. Immutable, so the same instance can be handed out by the Diet cache to many threads.
+public final class DietPlan {
+    private final long animalId;
+    private final String food;
+    private final int dailyPortions;
+
+    public DietPlan(long animalId, String food, int dailyPortions) {
+        this.animalId = animalId;
+        this.food = java.util.Objects.requireNonNull(food);
+        this.dailyPortions = dailyPortions;
+    }
+
+    public long getAnimalId() { return animalId; }
+    public String getFood() { return food; }
+    public int getDailyPortions() { return dailyPortions; }
+
+    public Task toTask(int enclosure, long dueTime) { // The feeding job for this plan, see zoo.animal.feeding.FeedingEngine
+        return new Task(animalId, enclosure, food, dailyPortions, dueTime);
+    }
+
+    public String toString() {
+        return "DietPlan[animal=" + animalId + ", " + dailyPortions + " " + food + "/day]";
+    }
+}
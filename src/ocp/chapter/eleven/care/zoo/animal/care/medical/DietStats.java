@@ -0,0 +1,37 @@
+package zoo.animal.care.medical;
+
+// Snapshot of the Diet cache counters.
+public final class DietStats {
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+    private final long expirations;
+    private final long refreshes;
+    private final int size;
+
+    DietStats(long hits, long misses, long evictions, long expirations, long refreshes, int size) {
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.expirations = expirations;
+        this.refreshes = refreshes;
+        this.size = size;
+    }
+
+    public long getHits() { return hits; }
+    public long getMisses() { return misses; }
+    public long getEvictions() { return evictions; }
+    public long getExpirations() { return expirations; }
+    public long getRefreshes() { return refreshes; }
+    public int getSize() { return size; }
+
+    public double getHitRate() {
+        long requests = hits + misses;
+        return requests == 0 ? 1.0 : (double) hits / requests;
+    }
+
+    public String toString() {
+        return String.format("hits=%,d misses=%,d hitRate=%.2f%% evictions=%,d expirations=%,d refreshes=%,d size=%,d",
+            hits, misses, getHitRate() * 100, evictions, expirations, refreshes, size);
+    }
+}
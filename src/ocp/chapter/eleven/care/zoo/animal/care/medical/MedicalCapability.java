@@ -0,0 +1,18 @@
+package zoo.animal.care.medical;
+
+import zoo.staff.Job;
+import zoo.staff.spi.Capability;
+
+// Lets zoo.staff do medical checks, found with ServiceLoader (see the provides directive in module-info.java).
+public class MedicalCapability implements Capability {
+    public MedicalCapability() { } // ServiceLoader needs a public no-arg constructor
+
+    public String name() { return "care"; }
+
+    public boolean handles(Job.Kind kind) { return kind == Job.Kind.MEDICAL; }
+
+    public String perform(Job job) {
+        DietPlan plan = new DietPlan(job.getId(), "hay", 3);
+        return "Checked animal " + job.getId() + ", " + plan;
+    }
+}
@@ -0,0 +1,10 @@
+package zoo.animal.feeding;
+
+import java.util.List;
+
+// Does the actual feeding of a batch, all tasks in a batch belong to the same enclosure.
+// It's called from the FeedingEngine pool threads, so implementations must be thread-safe.
+@FunctionalInterface
+public interface Feeder {
+    void feed(int enclosure, List<Task> batch);
+}
@@ -0,0 +1,200 @@
+package zoo.animal.feeding;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+// Runs feeding Tasks when they are due, grouped by enclosure, on a work-stealing pool.
+// - submit() only adds the task to a lock-free queue, so many threads can submit millions of tasks without blocking each other.
+// - A single ticker thread owns the timer wheel: every tick it moves the submitted tasks into the wheel buckets (bucket = due tick
+//   modulo the wheel size) and takes the due tasks out of the current bucket. Tasks due more than one wheel turn ahead just stay in
+//   their bucket until their turn comes. Adding and expiring a task is O(1), unlike a PriorityQueue (O(log n)).
+// - The due tasks of a tick are grouped by enclosure into batches, and each batch is fed on a ForkJoinPool. Big batches are split in
+//   halves (RecursiveAction), so idle pool threads can steal the other half.
+public class FeedingEngine implements AutoCloseable {
+
+    private static final int BATCH_SPLIT = 1_024; // Batches bigger than this are split in halves
+
+    private final Feeder feeder;
+    private final long tickMillis;
+    private final List<List<Task>> wheel;
+    private final int wheelMask;
+    private final Queue<Task> incoming = new ConcurrentLinkedQueue<>();
+    private final ForkJoinPool pool;
+    private final ScheduledExecutorService ticker;
+    private final long startNanos = System.nanoTime();
+    private long lastTick;      // Only used by the ticker thread
+    private int scheduled;      // Tasks inside the wheel, only used by the ticker thread
+    private volatile boolean closed;
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder totalLateness = new LongAdder();
+    private final LongAccumulator maxLateness = new LongAccumulator(Math::max, 0);
+    private final AtomicReference<Throwable> failure = new AtomicReference<>(); // First exception thrown by the feeder or the ticker
+
+    public FeedingEngine(Feeder feeder) {
+        this(feeder, 10, 512, Runtime.getRuntime().availableProcessors());
+    }
+
+    public FeedingEngine(Feeder feeder, long tickMillis, int wheelSize, int parallelism) {
+        if (tickMillis <= 0) throw new IllegalArgumentException("tickMillis must be positive: " + tickMillis);
+        if (Integer.bitCount(wheelSize) != 1) throw new IllegalArgumentException("wheelSize must be a power of two: " + wheelSize);
+        this.feeder = Objects.requireNonNull(feeder);
+        this.tickMillis = tickMillis;
+        this.wheel = new ArrayList<>(wheelSize);
+        for (int i = 0; i < wheelSize; i++) wheel.add(new ArrayList<>());
+        this.wheelMask = wheelSize - 1;
+        this.pool = new ForkJoinPool(parallelism);
+        this.lastTick = System.currentTimeMillis() / tickMillis - 1;
+        this.ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "feeding-ticker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(this::tick, 0, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public void submit(Task task) {
+        if (closed) throw new RejectedExecutionException("FeedingEngine is closed");
+        incoming.add(Objects.requireNonNull(task));
+        submitted.increment();
+    }
+
+    public void submitAll(Collection<Task> tasks) {
+        for (Task task : tasks) submit(task);
+    }
+
+    public FeedingMetrics metrics() {
+        return new FeedingMetrics(submitted.sum(), completed.sum(), batches.sum(), totalLateness.sum(), maxLateness.get(),
+            System.nanoTime() - startNanos);
+    }
+
+    private void tick() {
+        try {
+            long now = System.currentTimeMillis();
+            long currentTick = now / tickMillis;
+            Map<Integer, List<Task>> due = new HashMap<>();
+
+            for (Task task; (task = incoming.poll()) != null; ) {
+                long dueTick = task.getDueTime() / tickMillis;
+                if (dueTick <= currentTick) add(due, task);
+                else {
+                    wheel.get((int) dueTick & wheelMask).add(task);
+                    scheduled++;
+                }
+            }
+
+            // Catches up if the ticker was late, but never walks more than one full turn of the wheel.
+            long from = Math.max(lastTick + 1, currentTick - wheelMask);
+            for (long t = from; t <= currentTick && scheduled > 0; t++) {
+                List<Task> bucket = wheel.get((int) t & wheelMask);
+                int kept = 0;
+                for (int i = 0; i < bucket.size(); i++) { // Compacts the bucket in place, keeping the tasks of the next turns.
+                    Task task = bucket.get(i);
+                    if (task.getDueTime() / tickMillis <= currentTick) add(due, task);
+                    else bucket.set(kept++, task);
+                }
+                scheduled -= bucket.size() - kept;
+                bucket.subList(kept, bucket.size()).clear();
+            }
+            lastTick = currentTick;
+
+            for (Map.Entry<Integer, List<Task>> batch : due.entrySet()) {
+                batches.increment();
+                pool.execute(new FeedBatch(batch.getKey(), batch.getValue(), 0, batch.getValue().size()));
+            }
+        } catch (RuntimeException e) { // Not rethrown, it would silently cancel the scheduled ticker.
+            fail(e);
+        }
+    }
+
+    // Keeps the first failure for awaitCompletion(), the later ones are suppressed in it.
+    private void fail(Throwable e) {
+        if (!failure.compareAndSet(null, e) && failure.get() != e) failure.get().addSuppressed(e);
+    }
+
+    private static void add(Map<Integer, List<Task>> due, Task task) {
+        due.computeIfAbsent(task.getEnclosure(), k -> new ArrayList<>()).add(task);
+    }
+
+    private class FeedBatch extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int enclosure;
+        private final List<Task> tasks;
+        private final int from;
+        private final int to;
+
+        FeedBatch(int enclosure, List<Task> tasks, int from, int to) {
+            this.enclosure = enclosure;
+            this.tasks = tasks;
+            this.from = from;
+            this.to = to;
+        }
+
+        protected void compute() {
+            if (to - from > BATCH_SPLIT) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new FeedBatch(enclosure, tasks, from, middle), new FeedBatch(enclosure, tasks, middle, to));
+                return;
+            }
+            List<Task> batch = tasks.subList(from, to);
+            long start = System.currentTimeMillis();
+            long lateness = 0;
+            for (Task task : batch) {
+                long late = Math.max(0, start - task.getDueTime());
+                lateness += late;
+                maxLateness.accumulate(late);
+            }
+            try {
+                feeder.feed(enclosure, batch);
+            } catch (RuntimeException | Error e) { // The pool would only keep it in this task, that nobody joins
+                fail(e);
+                throw e;
+            }
+            totalLateness.add(lateness);
+            completed.add(batch.size());
+        }
+    }
+
+    // Waits until every submitted task is fed (or the timeout ends). Tasks due in the future are still waited for.
+    // Throws CompletionException if the feeder threw for a batch or the ticker failed, their tasks will never complete (the cause
+    // is the first exception, the later ones are suppressed in it).
+    public boolean awaitCompletion(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (completed.sum() < submitted.sum()) {
+            Throwable cause = failure.get();
+            if (cause != null) throw new CompletionException("The feeder failed", cause);
+            if (System.nanoTime() > deadline) return false;
+            Thread.sleep(tickMillis);
+        }
+        return true;
+    }
+
+    public void close() {
+        closed = true;
+        ticker.shutdown();
+        pool.shutdown();
+    }
+
+    public static void main(String... args) throws InterruptedException {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        String[] foods = { "hay", "fish", "meat", "bamboo", "fruit" };
+        LongAdder portions = new LongAdder();
+
+        try (FeedingEngine engine = new FeedingEngine((enclosure, batch) -> {
+            for (Task task : batch) portions.add(task.getQuantity());
+        })) {
+            long now = System.currentTimeMillis();
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < count; i++) // Due in the next 2 seconds, spread over 1000 enclosures.
+                engine.submit(new Task(i, random.nextInt(1_000), foods[i % foods.length], 1 + random.nextInt(5), now + random.nextInt(2_000)));
+
+            System.out.println("All fed? " + engine.awaitCompletion(30, TimeUnit.SECONDS));
+            System.out.println(engine.metrics());
+            System.out.printf("%,d portions%n", portions.sum());
+        }
+    }
+}
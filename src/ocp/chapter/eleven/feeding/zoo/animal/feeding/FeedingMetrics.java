@@ -0,0 +1,38 @@
+package zoo.animal.feeding;
+
+// Snapshot of the FeedingEngine counters. Lateness is how long after its due time a task started being fed.
+public final class FeedingMetrics {
+    private final long submitted;
+    private final long completed;
+    private final long batches;
+    private final long totalLatenessMillis;
+    private final long maxLatenessMillis;
+    private final long elapsedNanos;
+
+    FeedingMetrics(long submitted, long completed, long batches, long totalLatenessMillis, long maxLatenessMillis, long elapsedNanos) {
+        this.submitted = submitted;
+        this.completed = completed;
+        this.batches = batches;
+        this.totalLatenessMillis = totalLatenessMillis;
+        this.maxLatenessMillis = maxLatenessMillis;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public long getSubmitted() { return submitted; }
+    public long getCompleted() { return completed; }
+    public long getBatches() { return batches; }
+    public long getMaxLatenessMillis() { return maxLatenessMillis; }
+
+    public double getAverageLatenessMillis() {
+        return completed == 0 ? 0 : (double) totalLatenessMillis / completed;
+    }
+
+    public double getThroughput() { // Completed tasks per second since the engine started
+        return elapsedNanos == 0 ? 0 : completed * 1e9 / elapsedNanos;
+    }
+
+    public String toString() {
+        return String.format("submitted=%,d completed=%,d batches=%,d throughput=%,.0f tasks/s lateness avg=%.1f ms max=%d ms",
+            submitted, completed, batches, getThroughput(), getAverageLatenessMillis(), maxLatenessMillis);
+    }
+}
@@ -1,7 +1,34 @@
 package zoo.animal.feeding;
 
-public class Task {
+// A feeding job: which animal, in which enclosure, what food and how much, and when it's due (epoch millis).
+// It's immutable, so it can be shared between the threads of FeedingEngine without any synchronization.
+public final class Task {
+    private final long animalId;
+    private final int enclosure;
+    private final String food;
+    private final int quantity;
+    private final long dueTime;
+
+    public Task(long animalId, int enclosure, String food, int quantity, long dueTime) {
+        if (quantity <= 0) throw new IllegalArgumentException("quantity must be positive: " + quantity);
+        this.animalId = animalId;
+        this.enclosure = enclosure;
+        this.food = java.util.Objects.requireNonNull(food);
+        this.quantity = quantity;
+        this.dueTime = dueTime;
+    }
+
+    public long getAnimalId() { return animalId; }
+    public int getEnclosure() { return enclosure; }
+    public String getFood() { return food; }
+    public int getQuantity() { return quantity; }
+    public long getDueTime() { return dueTime; }
+
+    public String toString() {
+        return "Task[animal=" + animalId + ", enclosure=" + enclosure + ", " + quantity + " " + food + ", due=" + dueTime + "]";
+    }
+
     public static void main(String... args) {
         System.out.println("All fed!");
     }
-}
\ No newline at end of file
+}
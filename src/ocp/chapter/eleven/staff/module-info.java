@@ -1,5 +1,10 @@
 module zoo.staff {
-    requires zoo.animal.talks;
+    exports zoo.staff;
+    exports zoo.staff.spi;
+
     requires zoo.animal.feeding;
-    requires zoo.animal.care;
-}
\ No newline at end of file
+    requires static java.management; // Only for the statistics printed by Capabilities.main, when the module is there
+
+    uses zoo.staff.spi.Capability;
+    provides zoo.staff.spi.Capability with zoo.staff.FeedingCapability;
+}
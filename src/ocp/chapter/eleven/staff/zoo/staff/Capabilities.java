@@ -0,0 +1,93 @@
+package zoo.staff;
+
+import java.lang.module.*;
+import java.nio.file.*;
+import java.util.*;
+import zoo.staff.spi.Capability;
+
+// Finds the Capability for each kind of job with ServiceLoader, loading the optional modules (talks, care) only on first use.
+// - At startup only zoo.staff and zoo.animal.feeding are on the module path, so the boot layer resolves and loads just those.
+// - The first job that no boot layer capability handles creates a child ModuleLayer from the jars in the optional directory
+//   (-Dzoo.staff.optional=<dir>, default 'optional'). The child layer resolves talks and care against the boot layer, which
+//   already has feeding and staff, and ServiceLoader finds their Capability providers there.
+// - If the optional modules are on the module path anyway (like in the jlink image), they are found in the boot layer and no
+//   child layer is created.
+// java -p boot -m zoo.staff/zoo.staff.Capabilities                       - Lazy: the child layer is created by the first talk job
+// java -Dzoo.staff.eager=true -p boot -m zoo.staff/zoo.staff.Capabilities - Eager: the child layer is created at startup
+// The uptime and class count come from java.management, which zoo.staff only 'requires static'. The java launcher of a full JDK
+// resolves it anyway (service binding of the JDK modules), a jlink image of the zoo modules doesn't have it (unless it's linked in
+// with --add-modules java.management) and only prints the layer state.
+public class Capabilities {
+
+    private static final String[] OPTIONAL_MODULES = { "zoo.animal.talks", "zoo.animal.care" };
+
+    private final Path optionalDirectory;
+    private final List<Capability> capabilities = new ArrayList<>();
+    private ModuleLayer optionalLayer;
+
+    public Capabilities(Path optionalDirectory) {
+        this.optionalDirectory = optionalDirectory;
+        ServiceLoader.load(Capability.class).forEach(capabilities::add); // Boot layer providers
+    }
+
+    public synchronized Optional<Capability> forKind(Job.Kind kind) {
+        Optional<Capability> capability = find(kind);
+        if (capability.isEmpty() && optionalLayer == null) {
+            loadOptionalLayer();
+            capability = find(kind);
+        }
+        return capability;
+    }
+
+    public synchronized boolean isOptionalLayerLoaded() {
+        return optionalLayer != null;
+    }
+
+    synchronized void loadOptionalLayer() {
+        if (optionalLayer != null) return;
+        ModuleLayer parent = ModuleLayer.boot();
+        ModuleFinder finder = ModuleFinder.of(optionalDirectory);
+        Set<String> roots = new HashSet<>();
+        for (String name : OPTIONAL_MODULES) // Only the ones that are there and aren't in the boot layer already
+            if (finder.find(name).isPresent() && parent.findModule(name).isEmpty()) roots.add(name);
+
+        Configuration configuration = parent.configuration().resolveAndBind(finder, ModuleFinder.of(), roots);
+        optionalLayer = parent.defineModulesWithOneLoader(configuration, ClassLoader.getSystemClassLoader());
+        for (Capability capability : ServiceLoader.load(optionalLayer, Capability.class)) { // Also returns the parent's providers
+            if (capability.getClass().getModule().getLayer() == optionalLayer) capabilities.add(capability);
+        }
+    }
+
+    private Optional<Capability> find(Job.Kind kind) {
+        for (Capability capability : capabilities)
+            if (capability.handles(kind)) return Optional.of(capability);
+        return Optional.empty();
+    }
+
+    public static void main(String... args) {
+        Capabilities capabilities = new Capabilities(Path.of(System.getProperty("zoo.staff.optional", "optional")));
+        if (Boolean.getBoolean("zoo.staff.eager")) capabilities.loadOptionalLayer();
+        report("startup", capabilities);
+
+        System.out.println(capabilities.forKind(Job.Kind.FEEDING).map(c -> c.perform(new Job(1, Job.Kind.FEEDING, 3, 0, 2))).orElse("nobody feeds"));
+        report("first feeding job", capabilities);
+
+        System.out.println(capabilities.forKind(Job.Kind.TALK).map(c -> c.perform(new Job(2, Job.Kind.TALK, 4, 0, 4))).orElse("nobody talks"));
+        report("first talk job", capabilities);
+    }
+
+    private static void report(String moment, Capabilities capabilities) {
+        String statistics = ModuleLayer.boot().findModule("java.management").isPresent() ? Statistics.get() : "";
+        System.out.printf("%-18s %soptional layer: %s%n", moment, statistics,
+            capabilities.isOptionalLayerLoaded() ? "loaded" : "not loaded");
+    }
+
+    // Only loaded when java.management is in the boot layer, its classes are never touched otherwise.
+    private static class Statistics {
+        static String get() {
+            return String.format("%4d ms since JVM start, %,d classes loaded, ",
+                java.lang.management.ManagementFactory.getRuntimeMXBean().getUptime(),
+                java.lang.management.ManagementFactory.getClassLoadingMXBean().getLoadedClassCount());
+        }
+    }
+}
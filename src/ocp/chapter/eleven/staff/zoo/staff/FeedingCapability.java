@@ -0,0 +1,18 @@
+package zoo.staff;
+
+import zoo.animal.feeding.Task;
+import zoo.staff.spi.Capability;
+
+// Built-in capability, zoo.animal.feeding is the only module zoo.staff always needs.
+public class FeedingCapability implements Capability {
+    public FeedingCapability() { } // ServiceLoader needs a public no-arg constructor
+
+    public String name() { return "feeding"; }
+
+    public boolean handles(Job.Kind kind) { return kind == Job.Kind.FEEDING; }
+
+    public String perform(Job job) {
+        Task task = new Task(job.getId(), job.getEnclosure(), "hay", 1, System.currentTimeMillis());
+        return "Fed " + task;
+    }
+}
@@ -0,0 +1,30 @@
+package zoo.staff;
+
+// A job for a staff member. Times are minutes from the start of the day.
+public final class Job {
+    public enum Kind { FEEDING, TALK, MEDICAL }
+
+    private final int id;
+    private final Kind kind;
+    private final int enclosure;
+    private final int releaseTime;
+    private final int duration;
+
+    public Job(int id, Kind kind, int enclosure, int releaseTime, int duration) {
+        this.id = id;
+        this.kind = kind;
+        this.enclosure = enclosure;
+        this.releaseTime = releaseTime;
+        this.duration = duration;
+    }
+
+    public int getId() { return id; }
+    public Kind getKind() { return kind; }
+    public int getEnclosure() { return enclosure; }
+    public int getReleaseTime() { return releaseTime; }
+    public int getDuration() { return duration; }
+
+    public String toString() {
+        return kind + "[id=" + id + ", enclosure=" + enclosure + ", release=" + releaseTime + ", duration=" + duration + "]";
+    }
+}
@@ -0,0 +1,91 @@
+package zoo.staff;
+
+import java.util.*;
+
+// Simulates a day of work with Jobs: jobs are released during 8 hours (480 minutes) and each staff member works on one job at
+// a time. It's a discrete-event simulation (time jumps from event to event), so a day runs in milliseconds.
+// A staff member that steals a job from another zone walks there first (TRAVEL minutes), that's the cost affinity avoids.
+// java -p mods -m zoo.staff/zoo.staff.JobSimulator [staff] [jobs] [zones]
+public class JobSimulator {
+
+    private static final int DAY = 480;
+    private static final int TRAVEL = 5;
+    private static final int ENCLOSURES = 500;
+
+    private JobSimulator() { }
+
+    public static void main(String... args) {
+        int staff = args.length > 0 ? Integer.parseInt(args[0]) : 1_000;
+        int count = args.length > 1 ? Integer.parseInt(args[1]) : 100_000;
+        int zones = args.length > 2 ? Integer.parseInt(args[2]) : 50;
+
+        Random random = new Random(42);
+        Job[] day = new Job[count];
+        Job.Kind[] kinds = Job.Kind.values();
+        for (int i = 0; i < count; i++) {
+            Job.Kind kind = kinds[random.nextInt(kinds.length)];
+            int duration = kind == Job.Kind.FEEDING ? 2 : kind == Job.Kind.TALK ? 4 : 6;
+            int enclosure = random.nextInt(10) < 3 ? random.nextInt(20) : random.nextInt(ENCLOSURES); // Some enclosures are busier
+            day[i] = new Job(i, kind, enclosure, random.nextInt(DAY), duration + random.nextInt(2));
+        }
+        Arrays.sort(day, Comparator.comparingInt(Job::getReleaseTime));
+
+        long start = System.nanoTime();
+        Jobs jobs = new Jobs(staff, zones);
+        PriorityQueue<Long> free = new PriorityQueue<>(); // (time << 20) | staff member, ordered by time
+        BitSet idle = new BitSet(staff);
+        idle.set(0, staff);
+        int[] waits = new int[count];
+        int started = 0, makespan = 0, next = 0;
+
+        while (next < count || !free.isEmpty()) {
+            int release = next < count ? day[next].getReleaseTime() : Integer.MAX_VALUE;
+            int time;
+            int member;
+            if (free.isEmpty() || release <= free.peek() >>> 20) {
+                Job job = day[next++];
+                time = release;
+                int owner = jobs.submit(job);
+                if (idle.get(owner)) member = owner;
+                else { // Wakes an idle staff member, from the same zone if possible, so it can steal the job
+                    int zone = jobs.zoneOfEnclosure(job.getEnclosure());
+                    member = idle.nextSetBit(jobs.firstOfZone(zone));
+                    if (member < 0 || member >= jobs.firstOfZone(zone + 1)) member = idle.nextSetBit(0);
+                    if (member < 0) continue; // Everybody is busy, the job waits in the owner's deque
+                }
+            } else {
+                long event = free.poll();
+                time = (int) (event >>> 20);
+                member = (int) (event & 0xFFFFF);
+            }
+
+            Job job = jobs.take(member);
+            boolean remote = false;
+            if (job == null) {
+                job = jobs.steal(member);
+                remote = job != null && jobs.zoneOfEnclosure(job.getEnclosure()) != jobs.zoneOfStaff(member);
+            }
+            if (job == null) {
+                idle.set(member);
+                continue;
+            }
+            idle.clear(member);
+            int begin = time + (remote ? TRAVEL : 0);
+            waits[started++] = begin - job.getReleaseTime();
+            int finish = begin + job.getDuration();
+            makespan = Math.max(makespan, finish);
+            free.add(((long) finish << 20) | member);
+        }
+        long elapsed = System.nanoTime() - start;
+
+        Arrays.sort(waits, 0, started);
+        System.out.printf("%,d staff, %,d jobs, %d zones: simulated in %,d ms%n", staff, started, zones, elapsed / 1_000_000);
+        System.out.printf("makespan %d min (%.1f h), queue wait p50=%d p90=%d p99=%d max=%d min%n", makespan, makespan / 60.0,
+            percentile(waits, started, 50), percentile(waits, started, 90), percentile(waits, started, 99), waits[started - 1]);
+        System.out.printf("steals: %,d in the same zone, %,d from other zones%n", jobs.getLocalSteals(), jobs.getRemoteSteals());
+    }
+
+    private static int percentile(int[] sorted, int size, int percent) {
+        return sorted[Math.min(size - 1, (int) ((long) size * percent / 100))];
+    }
+}
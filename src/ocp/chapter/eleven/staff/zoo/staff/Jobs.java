@@ -1,3 +1,89 @@
 package zoo.staff;
 
-public class Jobs { }
\ No newline at end of file
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+// Job dispatcher: every staff member has its own deque of jobs, and staff members that run out of jobs steal from the others.
+// - Staff members are split into zones, and each enclosure belongs to one zone (enclosure % zones). A new job goes to the
+//   less loaded of two random staff members of its zone (power of two choices), so jobs stay near their enclosure.
+// - The owner takes jobs from the head of its deque, thieves take from the tail, so they rarely touch the same end.
+// - An idle staff member steals from its own zone first, and only then from the other zones (which means walking to another zone).
+// The deques are ConcurrentLinkedDeques, so owners and thieves can run on different threads.
+public class Jobs {
+    private final List<Deque<Job>> deques;
+    private final AtomicIntegerArray sizes;
+    private final int staff;
+    private final int zones;
+    private final LongAdder localSteals = new LongAdder();
+    private final LongAdder remoteSteals = new LongAdder();
+
+    public Jobs(int staff, int zones) {
+        if (zones <= 0 || zones > staff) throw new IllegalArgumentException("zones must be between 1 and " + staff + ": " + zones);
+        this.staff = staff;
+        this.zones = zones;
+        this.deques = new ArrayList<>(staff);
+        for (int i = 0; i < staff; i++) deques.add(new ConcurrentLinkedDeque<>());
+        this.sizes = new AtomicIntegerArray(staff);
+    }
+
+    public int zoneOfEnclosure(int enclosure) {
+        return Math.floorMod(enclosure, zones);
+    }
+
+    public int zoneOfStaff(int member) {
+        return (int) ((long) member * zones / staff);
+    }
+
+    int firstOfZone(int zone) { // Staff members of a zone are numbered [firstOfZone(zone), firstOfZone(zone + 1))
+        return (int) (((long) zone * staff + zones - 1) / zones);
+    }
+
+    // Queues the job for a staff member of the job's zone, returns who got it.
+    public int submit(Job job) {
+        int zone = zoneOfEnclosure(job.getEnclosure());
+        int first = firstOfZone(zone), size = firstOfZone(zone + 1) - first;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int a = first + random.nextInt(size), b = first + random.nextInt(size);
+        int member = sizes.get(a) <= sizes.get(b) ? a : b;
+        deques.get(member).addLast(job);
+        sizes.incrementAndGet(member);
+        return member;
+    }
+
+    public Job take(int member) {
+        Job job = deques.get(member).pollFirst();
+        if (job != null) sizes.decrementAndGet(member);
+        return job;
+    }
+
+    public Job steal(int thief) {
+        int zone = zoneOfStaff(thief);
+        int first = firstOfZone(zone), size = firstOfZone(zone + 1) - first;
+        Job job = stealFrom(first, size, ThreadLocalRandom.current().nextInt(size));
+        if (job != null) {
+            localSteals.increment();
+            return job;
+        }
+        job = stealFrom(0, staff, ThreadLocalRandom.current().nextInt(staff));
+        if (job != null) remoteSteals.increment(); // Almost always from another zone, the own zone was empty a moment ago
+        return job;
+    }
+
+    // Tries every staff member in [first, first + size), starting at a random one so thieves spread over the victims.
+    private Job stealFrom(int first, int size, int offset) {
+        for (int i = 0; i < size; i++) {
+            int victim = first + (offset + i) % size;
+            if (sizes.get(victim) == 0) continue;
+            Job job = deques.get(victim).pollLast();
+            if (job != null) {
+                sizes.decrementAndGet(victim);
+                return job;
+            }
+        }
+        return null;
+    }
+
+    public long getLocalSteals() { return localSteals.sum(); }
+    public long getRemoteSteals() { return remoteSteals.sum(); }
+}
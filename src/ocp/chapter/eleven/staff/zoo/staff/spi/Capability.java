@@ -0,0 +1,11 @@
+package zoo.staff.spi;
+
+import zoo.staff.Job;
+
+// Service interface for the kinds of jobs a staff process can do. Providers are found with ServiceLoader:
+// feeding is built into zoo.staff, talks and care provide theirs from their own modules (see zoo.staff.Capabilities).
+public interface Capability {
+    String name();
+    boolean handles(Job.Kind kind);
+    String perform(Job job);
+}
@@ -0,0 +1,73 @@
+#!/usr/bin/env bash
+# Builds the zoo modules, a trimmed jlink runtime image and an AppCDS archive, then compares the time-to-first-output of
+# zoo.animal.feeding.Task and zoo.animal.talks.media.Announcement in three modes:
+#   plain - java --module-path out/mods (the way the README runs the modules)
+#   jlink - out/image/bin/java, a runtime with only java.base and the zoo modules linked in (no --module-path needed). zoo.staff
+#           'requires static' java.management for its statistics, jlink doesn't follow static requires so it isn't linked in.
+#   cds   - the jlink runtime plus -XX:SharedArchiveFile, the zoo classes are mapped from the archive instead of parsed and verified
+# Run it from the 'eleven' directory: ./startup-image.sh [runs]
+# Everything is generated under 'out', the jars in 'mods' are left untouched.
+set -euo pipefail
+
+RUNS=${1:-10}
+OUT=out
+MAINS=("zoo.animal.feeding/zoo.animal.feeding.Task" "zoo.animal.talks/zoo.animal.talks.media.Announcement")
+
+rm -rf "$OUT"
+mkdir -p "$OUT/mods"
+
+# Same javac + jar commands of the README, in dependency order: feeding -> staff -> care -> talks
+build_module() { # <directory> <module name>
+    javac --release 11 -p "$OUT/mods" -d "$OUT/classes/$1" $(find "$1" -name '*.java' ! -name module-info.java) "$1/module-info.java"
+    jar -cf "$OUT/mods/$2.jar" -C "$OUT/classes/$1" .
+}
+build_module feeding zoo.animal.feeding
+build_module staff zoo.staff
+build_module care zoo.animal.care
+build_module talks zoo.animal.talks
+
+# jlink resolves the zoo modules plus only the JDK modules they require (jdeps shows which ones: java.base, and java.management
+# for zoo.staff, which is only a 'requires static' so jlink leaves it out).
+jdeps --module-path "$OUT/mods" -s --module zoo.animal.talks || true
+jdeps --module-path "$OUT/mods" -s --module zoo.staff || true
+jlink --module-path "$OUT/mods" \
+      --add-modules zoo.animal.feeding,zoo.animal.care,zoo.animal.talks,zoo.staff \
+      --strip-debug --no-man-pages --no-header-files --compress=2 \
+      --output "$OUT/image"
+
+# AppCDS in two steps (works from Java 11): record the classes loaded by each main, then dump them into one shared archive.
+# From Java 13 the two steps can be replaced by a single run with -XX:ArchiveClassesAtExit=<file>.
+for main in "${MAINS[@]}"; do
+    "$OUT/image/bin/java" -Xshare:off -XX:DumpLoadedClassList="$OUT/$(basename "${main##*.}").classlist" -m "$main" > /dev/null
+done
+cat "$OUT"/*.classlist | sort -u > "$OUT/zoo.classlist"
+"$OUT/image/bin/java" -Xshare:dump -XX:SharedClassListFile="$OUT/zoo.classlist" -XX:SharedArchiveFile="$OUT/zoo.jsa" \
+                      --module-path "$OUT/mods" --add-modules zoo.animal.feeding,zoo.animal.talks > /dev/null
+
+# Time until the first line is printed, the process may keep running after that.
+first_output_ms() {
+    local start end
+    start=$(date +%s%N)
+    { read -r _; } < <("$@")
+    end=$(date +%s%N)
+    echo $(( (end - start) / 1000000 ))
+}
+
+report() { # <label> <command...>
+    local label=$1 total=0 best=999999 ms
+    shift
+    "$@" > /dev/null # Warm the OS file cache, not counted.
+    for ((i = 0; i < RUNS; i++)); do
+        ms=$(first_output_ms "$@")
+        total=$((total + ms))
+        (( ms < best )) && best=$ms
+    done
+    printf '%-45s avg %5d ms  best %5d ms\n' "$label" $((total / RUNS)) "$best"
+}
+
+for main in "${MAINS[@]}"; do
+    report "plain ${main#*/}" java --module-path "$OUT/mods" -m "$main"
+    report "jlink ${main#*/}" "$OUT/image/bin/java" -m "$main"
+    report "cds   ${main#*/}" "$OUT/image/bin/java" -XX:SharedArchiveFile="$OUT/zoo.jsa" -Xshare:auto -m "$main"
+done
+du -sh "$OUT/image" "$OUT/zoo.jsa"
@@ -3,6 +3,9 @@ module zoo.animal.talks {
     exports zoo.animal.talks.media;
     exports zoo.animal.talks.schedule;
 
-    requires zoo.animal.feeding;
+    requires transitive zoo.animal.feeding;
     requires zoo.animal.care;
-}
\ No newline at end of file
+    requires transitive zoo.staff;
+
+    provides zoo.staff.spi.Capability with zoo.animal.talks.schedule.TalkCapability;
+}
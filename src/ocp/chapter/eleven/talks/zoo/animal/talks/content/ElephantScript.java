@@ -1,3 +1,12 @@
 package zoo.animal.talks.content;
 
-public class ElephantScript { }
\ No newline at end of file
+public class ElephantScript implements Script {
+    private final int enclosure;
+
+    public ElephantScript(int enclosure) {
+        this.enclosure = enclosure;
+    }
+
+    public String getTitle() { return "Elephant talk"; }
+    public int getEnclosure() { return enclosure; }
+}
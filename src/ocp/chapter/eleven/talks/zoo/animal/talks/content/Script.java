@@ -0,0 +1,7 @@
+package zoo.animal.talks.content;
+
+// A talk script: what the talk is about and which enclosure it's given at.
+public interface Script {
+    String getTitle();
+    int getEnclosure();
+}
@@ -1,3 +1,12 @@
 package zoo.animal.talks.content;
 
-public class SeaLionScript { }
\ No newline at end of file
+public class SeaLionScript implements Script {
+    private final int enclosure;
+
+    public SeaLionScript(int enclosure) {
+        this.enclosure = enclosure;
+    }
+
+    public String getTitle() { return "Sea lion talk"; }
+    public int getEnclosure() { return enclosure; }
+}
@@ -1,7 +1,38 @@
 package zoo.animal.talks.media;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+// An announcement is encoded only once, into a read-only buffer that is shared by every Signage it's delivered to.
+// Layout: [int length][UTF-8 bytes of the text]. Readers must use the absolute get methods (like decode() does),
+// so they never change the buffer position that the other readers see.
 public class Announcement {
+    private final String text;
+    private final ByteBuffer encoded;
+
+    public Announcement(String text) {
+        this.text = text;
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES + bytes.length);
+        buffer.putInt(bytes.length).put(bytes).flip();
+        this.encoded = buffer.asReadOnlyBuffer();
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public ByteBuffer encoded() {
+        return encoded;
+    }
+
+    public static String decode(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt(0)];
+        for (int i = 0; i < bytes.length; i++) bytes[i] = buffer.get(Integer.BYTES + i);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
     public static void main(String args[]) {
         System.out.println("We will be having talks");
     } 
-}
\ No newline at end of file
+}
@@ -0,0 +1,54 @@
+package zoo.animal.talks.media;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.*;
+
+// Lock-free publish/subscribe ring for encoded announcements, one publisher and any number of Signage subscribers.
+// - The publisher writes the next slot and then moves the 'published' sequence forward, it never waits for the subscribers.
+// - Each subscriber keeps its own cursor (the next sequence it wants), so subscribers don't share any state with each other.
+// - Each slot holds the sequence it was written for. A subscriber that fell more than 'capacity' announcements behind finds a newer
+//   sequence in the slot: its announcements were overwritten, so it coalesces, jumping to the latest announcement instead of
+//   replaying the backlog (signs only need to show the latest message). The skipped announcements are counted as coalesced.
+// publish() must always be called by the same thread (or with external synchronization).
+public class BroadcastRing {
+
+    private static final class Slot {
+        final long sequence;
+        final ByteBuffer buffer;
+
+        Slot(long sequence, ByteBuffer buffer) {
+            this.sequence = sequence;
+            this.buffer = buffer;
+        }
+    }
+
+    private final AtomicReferenceArray<Slot> slots;
+    private final int mask;
+    private final AtomicLong published = new AtomicLong(); // Sequence of the next announcement, everything below it can be read
+
+    public BroadcastRing(int capacity) {
+        if (Integer.bitCount(capacity) != 1) throw new IllegalArgumentException("capacity must be a power of two: " + capacity);
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+    }
+
+    public void publish(Announcement announcement) {
+        long sequence = published.get();
+        slots.lazySet((int) sequence & mask, new Slot(sequence, announcement.encoded())); // The slot is visible no later than 'published'
+        published.lazySet(sequence + 1); // Release store, cheaper than a volatile write, enough for a single writer.
+    }
+
+    public long published() {
+        return published.get();
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+
+    // Returns the buffer of 'sequence', or null if it was overwritten (the caller must coalesce) or isn't published yet.
+    ByteBuffer read(long sequence) {
+        Slot slot = slots.get((int) sequence & mask);
+        return slot != null && slot.sequence == sequence ? slot.buffer : null;
+    }
+}
@@ -1,3 +1,106 @@
 package zoo.animal.talks.media;
 
-public class Signage { }
\ No newline at end of file
+import java.nio.ByteBuffer;
+import java.util.*;
+import java.util.concurrent.*;
+
+// In-process stand-in for a signage endpoint: it reads announcements from a BroadcastRing with its own cursor and
+// shows the latest one. A sign is read by one thread at a time, but different signs can be read by different threads.
+public class Signage {
+    private final String name;
+    private final BroadcastRing ring;
+    private long cursor;
+    private long received;
+    private long coalesced;
+    private ByteBuffer showing;
+
+    public Signage(String name, BroadcastRing ring) {
+        this.name = name;
+        this.ring = ring;
+        this.cursor = ring.published(); // Starts with the next announcement, like a sign that was just turned on
+    }
+
+    // Reads up to 'max' announcements, returns how many were shown.
+    public int poll(int max) {
+        long available = ring.published();
+        int shown = 0;
+        while (cursor < available && shown < max) {
+            if (available - cursor > ring.capacity()) coalesce(available);
+            ByteBuffer buffer = ring.read(cursor);
+            if (buffer == null) { // Overwritten while we were reading, the publisher is a full ring ahead
+                available = ring.published();
+                coalesce(available);
+                continue;
+            }
+            showing = buffer; // The shared buffer, no copy
+            received++;
+            cursor++;
+            shown++;
+        }
+        return shown;
+    }
+
+    private void coalesce(long available) {
+        coalesced += available - 1 - cursor;
+        cursor = available - 1; // Only the latest announcement is still worth showing
+    }
+
+    public String getName() { return name; }
+    public long getReceived() { return received; }
+    public long getCoalesced() { return coalesced; }
+
+    public String getShowing() {
+        return showing == null ? "" : Announcement.decode(showing);
+    }
+
+    public static void main(String... args) throws Exception {
+        int signs = args.length > 0 ? Integer.parseInt(args[0]) : 2_000;
+        int announcements = args.length > 1 ? Integer.parseInt(args[1]) : 200_000;
+        int readers = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+
+        BroadcastRing ring = new BroadcastRing(1_024);
+        List<Signage> all = new ArrayList<>();
+        for (int i = 0; i < signs; i++) all.add(new Signage("sign-" + i, ring));
+
+        ExecutorService service = null;
+        try {
+            service = Executors.newFixedThreadPool(readers);
+            List<Future<?>> results = new ArrayList<>();
+            for (int r = 0; r < readers; r++) { // Each reader thread owns a group of signs
+                List<Signage> group = all.subList(r * signs / readers, (r + 1) * signs / readers);
+                results.add(service.submit(() -> {
+                    while (true) {
+                        int shown = 0;
+                        for (Signage sign : group) shown += sign.poll(64);
+                        if (shown == 0 && ring.published() == announcements && caughtUp(group, ring)) return;
+                        if (shown == 0) Thread.yield();
+                    }
+                }));
+            }
+
+            long start = System.nanoTime();
+            for (int i = 0; i < announcements; i++) ring.publish(new Announcement("Talk " + i + " starts soon"));
+            long published = System.nanoTime() - start;
+            for (Future<?> result : results) result.get();
+            long delivered = System.nanoTime() - start;
+
+            long received = 0, coalesced = 0;
+            for (Signage sign : all) {
+                received += sign.getReceived();
+                coalesced += sign.getCoalesced();
+            }
+            System.out.printf("published %,d announcements in %,d ms (%,.0f/s), the publisher never waited%n",
+                announcements, published / 1_000_000, announcements * 1e9 / published);
+            System.out.printf("%,d signs: %,d delivered, %,d coalesced, all done in %,d ms%n",
+                signs, received, coalesced, delivered / 1_000_000);
+            System.out.println(all.get(0).getName() + " shows: " + all.get(0).getShowing());
+        } finally {
+            if (service != null) service.shutdown();
+        }
+    }
+
+    private static boolean caughtUp(List<Signage> group, BroadcastRing ring) {
+        for (Signage sign : group) if (sign.cursor < ring.published()) return false;
+        return true;
+    }
+}
@@ -0,0 +1,19 @@
+package zoo.animal.talks.schedule;
+
+import zoo.animal.talks.content.*;
+import zoo.staff.Job;
+import zoo.staff.spi.Capability;
+
+// Lets zoo.staff give talks, found with ServiceLoader (see the provides directive in module-info.java).
+public class TalkCapability implements Capability {
+    public TalkCapability() { } // ServiceLoader needs a public no-arg constructor
+
+    public String name() { return "talks"; }
+
+    public boolean handles(Job.Kind kind) { return kind == Job.Kind.TALK; }
+
+    public String perform(Job job) {
+        Script script = job.getId() % 2 == 0 ? new ElephantScript(job.getEnclosure()) : new SeaLionScript(job.getEnclosure());
+        return script.getTitle() + " at enclosure " + script.getEnclosure();
+    }
+}
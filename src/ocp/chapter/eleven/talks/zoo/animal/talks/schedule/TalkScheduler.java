@@ -0,0 +1,164 @@
+package zoo.animal.talks.schedule;
+
+import java.util.*;
+import zoo.animal.feeding.Task;
+import zoo.animal.talks.content.Script;
+
+// Assigns each talk a time slot, a venue and a keeper, using local search (min-conflicts) instead of trying every combination.
+// Hard constraints, each broken one adds 1 to the score (0 means a valid schedule):
+// - a venue or a keeper can't have two talks in the same slot,
+// - the keeper must be available in that slot,
+// - the talk's enclosure can't be fed in that slot (feeding times come from zoo.animal.feeding Tasks).
+// The score is kept up to date with use counters per (slot, venue) and (slot, keeper), so the score change of moving one talk is
+// computed in O(1). Only talks that may be in conflict are queued for moving, so solve() does work proportional to the conflicts,
+// and after a single change (like a keeper becoming unavailable) it re-plans from the current schedule instead of from scratch.
+// Keepers are plain indexes and their availability is set by the caller with setKeeperAvailable(): this module requires zoo.staff,
+// but zoo.staff only reaches it through its Capability service (TalkCapability), so the scheduler doesn't depend on staff types.
+public class TalkScheduler {
+
+    private static final int CANDIDATES = 32; // Random moves evaluated for each conflicted talk
+
+    private final int slots;
+    private final int venues;
+    private final int keepers;
+    private final int[] venueUse;      // [slot * venues + venue]
+    private final int[] keeperUse;     // [slot * keepers + keeper]
+    private final boolean[] unavailable; // [keeper * slots + slot]
+    private final Set<Long> feeding = new HashSet<>(); // enclosure * slots + slot
+    private final List<Script> talks = new ArrayList<>();
+    private int[] slotOf = new int[16];
+    private int[] venueOf = new int[16];
+    private int[] keeperOf = new int[16];
+    private final ArrayDeque<Integer> queue = new ArrayDeque<>();
+    private final BitSet queued = new BitSet();
+    private final Random random;
+    private int score;
+
+    public TalkScheduler(int slots, int venues, int keepers, long seed) {
+        this.slots = slots;
+        this.venues = venues;
+        this.keepers = keepers;
+        this.venueUse = new int[slots * venues];
+        this.keeperUse = new int[slots * keepers];
+        this.unavailable = new boolean[keepers * slots];
+        this.random = new Random(seed);
+    }
+
+    public int getSlots() { return slots; }
+
+    // Adds the talk at a random place, solve() moves it if it's in conflict.
+    public int addTalk(Script script) {
+        int talk = talks.size();
+        talks.add(script);
+        if (talk == slotOf.length) {
+            slotOf = Arrays.copyOf(slotOf, talk * 2);
+            venueOf = Arrays.copyOf(venueOf, talk * 2);
+            keeperOf = Arrays.copyOf(keeperOf, talk * 2);
+        }
+        place(talk, random.nextInt(slots), random.nextInt(venues), random.nextInt(keepers));
+        enqueue(talk);
+        return talk;
+    }
+
+    public void setKeeperAvailable(int keeper, int slot, boolean available) {
+        List<Integer> affected = new ArrayList<>();
+        for (int talk = 0; talk < talks.size(); talk++) {
+            if (keeperOf[talk] == keeper && slotOf[talk] == slot) affected.add(talk);
+        }
+        // The affected talks are taken out before the constraint changes and put back after it, so the score stays consistent.
+        for (int talk : affected) remove(talk);
+        unavailable[keeper * slots + slot] = !available;
+        for (int talk : affected) {
+            place(talk, slot, venueOf[talk], keeper);
+            enqueue(talk);
+        }
+    }
+
+    // Blocks the slot of each feeding task for its enclosure, slot = (due time - week start) / slot length.
+    public void blockFeeding(Collection<Task> tasks, long weekStartMillis, long slotMillis) {
+        for (int talk = 0; talk < talks.size(); talk++) remove(talk);
+        for (Task task : tasks) {
+            long slot = (task.getDueTime() - weekStartMillis) / slotMillis;
+            if (slot >= 0 && slot < slots) feeding.add((long) task.getEnclosure() * slots + slot);
+        }
+        for (int talk = 0; talk < talks.size(); talk++) {
+            place(talk, slotOf[talk], venueOf[talk], keeperOf[talk]);
+            if (conflicted(talk)) enqueue(talk);
+        }
+    }
+
+    // Moves conflicted talks until the score is 0 or maxMoves is reached, returns the final score.
+    public int solve(int maxMoves) {
+        for (int moves = 0; score > 0 && moves < maxMoves && !queue.isEmpty(); moves++) {
+            int talk = queue.poll();
+            queued.clear(talk);
+            if (!conflicted(talk)) continue;
+
+            int oldSlot = slotOf[talk], oldVenue = venueOf[talk], oldKeeper = keeperOf[talk];
+            int before = score;
+            remove(talk);
+            int bestSlot = oldSlot, bestVenue = oldVenue, bestKeeper = oldKeeper;
+            int bestCost = cost(talk, oldSlot, oldVenue, oldKeeper);
+            for (int i = 0; i < CANDIDATES && bestCost > 0; i++) {
+                int slot = random.nextInt(slots), venue = random.nextInt(venues), keeper = random.nextInt(keepers);
+                int cost = cost(talk, slot, venue, keeper);
+                if (cost < bestCost || (cost == bestCost && random.nextBoolean())) { // Sideways moves get out of plateaus
+                    bestSlot = slot;
+                    bestVenue = venue;
+                    bestKeeper = keeper;
+                    bestCost = cost;
+                }
+            }
+            place(talk, bestSlot, bestVenue, bestKeeper);
+            if (conflicted(talk)) enqueue(talk);
+            if (score > before) throw new IllegalStateException("Move made the score worse"); // Can't happen: the old place was a candidate
+        }
+        return score;
+    }
+
+    public int getScore() { return score; }
+    public int slotOf(int talk) { return slotOf[talk]; }
+    public int venueOf(int talk) { return venueOf[talk]; }
+    public int keeperOf(int talk) { return keeperOf[talk]; }
+    public Script scriptOf(int talk) { return talks.get(talk); }
+    public int size() { return talks.size(); }
+
+    // Score added by putting the talk at this place, with the talk currently removed from the counters.
+    private int cost(int talk, int slot, int venue, int keeper) {
+        int cost = 0;
+        if (venueUse[slot * venues + venue] > 0) cost++;
+        if (keeperUse[slot * keepers + keeper] > 0) cost++;
+        if (unavailable[keeper * slots + slot]) cost++;
+        if (feeding.contains((long) talks.get(talk).getEnclosure() * slots + slot)) cost++;
+        return cost;
+    }
+
+    private boolean conflicted(int talk) {
+        int slot = slotOf[talk];
+        return venueUse[slot * venues + venueOf[talk]] > 1 || keeperUse[slot * keepers + keeperOf[talk]] > 1
+            || unavailable[keeperOf[talk] * slots + slot] || feeding.contains((long) talks.get(talk).getEnclosure() * slots + slot);
+    }
+
+    private void place(int talk, int slot, int venue, int keeper) {
+        score += cost(talk, slot, venue, keeper);
+        slotOf[talk] = slot;
+        venueOf[talk] = venue;
+        keeperOf[talk] = keeper;
+        venueUse[slot * venues + venue]++;
+        keeperUse[slot * keepers + keeper]++;
+    }
+
+    private void remove(int talk) {
+        int slot = slotOf[talk];
+        venueUse[slot * venues + venueOf[talk]]--;
+        keeperUse[slot * keepers + keeperOf[talk]]--;
+        score -= cost(talk, slot, venueOf[talk], keeperOf[talk]);
+    }
+
+    private void enqueue(int talk) {
+        if (!queued.get(talk)) {
+            queued.set(talk);
+            queue.add(talk);
+        }
+    }
+}
@@ -1,3 +1,60 @@
 package zoo.animal.talks.schedule;
 
-public class Weekday { }
\ No newline at end of file
+import java.util.*;
+import zoo.animal.feeding.Task;
+import zoo.animal.talks.content.*;
+
+// Talk schedule for Monday to Friday, each day split in 'slotsPerDay' time slots (slot = day * slotsPerDay + time of the day).
+public class Weekday {
+    public static final int DAYS = 5;
+
+    private final TalkScheduler scheduler;
+
+    public Weekday(int slotsPerDay, int venues, int keepers) {
+        this.scheduler = new TalkScheduler(DAYS * slotsPerDay, venues, keepers, 5L);
+    }
+
+    public TalkScheduler getScheduler() {
+        return scheduler;
+    }
+
+    public static void main(String... args) {
+        int slotsPerDay = 16; // 30 minute slots from 9:00 to 17:00
+        long slotMillis = 30 * 60 * 1000;
+
+        for (int talks = 1_000; talks <= 16_000; talks *= 2) { // Venues and keepers grow with the talks, like a bigger zoo would
+            Weekday weekday = new Weekday(slotsPerDay, talks / 40, talks / 20);
+            TalkScheduler scheduler = weekday.getScheduler();
+            Random random = new Random(talks);
+
+            for (int keeper = 0; keeper < talks / 20; keeper++) // Each keeper is off for 20% of the slots
+                for (int slot = 0; slot < scheduler.getSlots(); slot++)
+                    if (random.nextInt(5) == 0) scheduler.setKeeperAvailable(keeper, slot, false);
+
+            int enclosures = talks / 10;
+            List<Task> feedings = new ArrayList<>();
+            for (int enclosure = 0; enclosure < enclosures; enclosure++) // Two feedings per enclosure per day
+                for (int day = 0; day < DAYS; day++) {
+                    feedings.add(new Task(enclosure, enclosure, "fish", 1, (day * slotsPerDay + 2) * slotMillis));
+                    feedings.add(new Task(enclosure, enclosure, "fish", 1, (day * slotsPerDay + 12) * slotMillis));
+                }
+
+            for (int i = 0; i < talks; i++)
+                scheduler.addTalk(i % 2 == 0 ? new ElephantScript(random.nextInt(enclosures)) : new SeaLionScript(random.nextInt(enclosures)));
+            scheduler.blockFeeding(feedings, 0, slotMillis);
+
+            long start = System.nanoTime();
+            int score = scheduler.solve(100 * talks);
+            long solved = System.nanoTime() - start;
+
+            int talk = random.nextInt(talks); // One keeper calls in sick for one slot, only that talk is re-planned
+            scheduler.setKeeperAvailable(scheduler.keeperOf(talk), scheduler.slotOf(talk), false);
+            start = System.nanoTime();
+            int rescore = scheduler.solve(100 * talks);
+            long replanned = System.nanoTime() - start;
+
+            System.out.printf("%,6d talks: solved in %,5d ms (score %d), re-planned in %,5d us (score %d)%n",
+                talks, solved / 1_000_000, score, replanned / 1_000, rescore);
+        }
+    }
+}
@@ -1,3 +1,16 @@
 package zoo.animal.talks.schedule;
 
-public class Weekend { }
\ No newline at end of file
+// Talk schedule for Saturday and Sunday, each day split in 'slotsPerDay' time slots (slot = day * slotsPerDay + time of the day).
+public class Weekend {
+    public static final int DAYS = 2;
+
+    private final TalkScheduler scheduler;
+
+    public Weekend(int slotsPerDay, int venues, int keepers) {
+        this.scheduler = new TalkScheduler(DAYS * slotsPerDay, venues, keepers, 2L);
+    }
+
+    public TalkScheduler getScheduler() {
+        return scheduler;
+    }
+}
@@ -0,0 +1,94 @@
+package ocp.chapter.five;
+
+import java.util.*;
+import java.util.function.IntFunction;
+
+// Collects elements into chunks instead of one growing array (ArrayList copies the whole array every time it grows).
+// A full chunk is kept as it is and a new one is started, so growing never copies the elements already added.
+// - build(): if everything fits in the first chunk and it is full (expectedSize was right), that chunk is returned with no copy at all,
+//   otherwise the elements are copied exactly once into an array of the exact size (no grow copies + trailing trim copy).
+// - toList(): if there is only one chunk, it's wrapped by ArrayViews.immutable without any copy (even if it's not full).
+// The builder must not be used after build() or toList(), since the returned array/list shares the chunk.
+public final class ArrayBuilder<E> {
+
+    private static final int DEFAULT_CHUNK = 16;
+    private static final int MAX_CHUNK = 1 << 20;
+
+    private final IntFunction<E[]> generator; // Same idea of list.toArray(String[]::new), so we can create arrays of the right type.
+    private final List<E[]> fullChunks = new ArrayList<>();
+    private E[] current;
+    private int currentSize;
+    private int size;
+    private boolean built;
+
+    public ArrayBuilder(IntFunction<E[]> generator) {
+        this(generator, DEFAULT_CHUNK);
+    }
+
+    public ArrayBuilder(IntFunction<E[]> generator, int expectedSize) {
+        if (expectedSize < 0) throw new IllegalArgumentException("expectedSize < 0: " + expectedSize);
+        this.generator = Objects.requireNonNull(generator);
+        this.current = generator.apply(Math.max(expectedSize, 1));
+    }
+
+    public ArrayBuilder<E> add(E element) {
+        checkNotBuilt();
+        if (currentSize == current.length) {
+            fullChunks.add(current);
+            // In long: a first chunk of 2^30 elements or more (a big expectedSize) would overflow to a negative length when doubled.
+            current = generator.apply((int) Math.min((long) Math.max(current.length, DEFAULT_CHUNK) << 1, MAX_CHUNK));
+            currentSize = 0;
+        }
+        current[currentSize++] = element;
+        size++;
+        return this;
+    }
+
+    public ArrayBuilder<E> addAll(Collection<? extends E> elements) {
+        for (E e : elements) add(e);
+        return this;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public E[] build() {
+        checkNotBuilt();
+        built = true;
+        ArrayTransferEvent event = new ArrayTransferEvent();
+        event.begin();
+        E[] result;
+        if (fullChunks.isEmpty() && currentSize == current.length) {
+            result = current;
+        } else {
+            result = generator.apply(size);
+            int pos = 0;
+            for (E[] chunk : fullChunks) {
+                System.arraycopy(chunk, 0, result, pos, chunk.length);
+                pos += chunk.length;
+            }
+            System.arraycopy(current, 0, result, pos, currentSize);
+            event.copied = size;
+        }
+        event.elements = size;
+        event.commit();
+        return result;
+    }
+
+    public List<E> toList() {
+        if (fullChunks.isEmpty()) {
+            checkNotBuilt();
+            built = true;
+            ArrayTransferEvent event = new ArrayTransferEvent();
+            event.elements = size;
+            event.commit();
+            return ArrayViews.immutable(current, currentSize);
+        }
+        return ArrayViews.immutable(build());
+    }
+
+    private void checkNotBuilt() {
+        if (built) throw new IllegalStateException("ArrayBuilder already built");
+    }
+}
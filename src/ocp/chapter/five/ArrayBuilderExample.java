@@ -0,0 +1,59 @@
+package ocp.chapter.five;
+
+import java.lang.management.ManagementFactory;
+import java.util.*;
+
+// Compares the bytes allocated by the current thread when moving elements between a List and an array.
+// ThreadMXBean.getThreadAllocatedBytes is a HotSpot extension (com.sun.management), it is good enough to compare approaches,
+// for a full picture run it with JFR (see ArrayTransferEvent).
+public class ArrayBuilderExample {
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    public static void main(String... args) {
+
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        String[] source = new String[count];
+        for (int i = 0; i < count; i++) source[i] = "bug" + (i % 100);
+
+        System.out.println(ArrayViews.immutable("cricket", "beetle")); // [cricket, beetle]
+
+        for (int round = 0; round < 3; round++) { // First rounds warm up the JIT, look at the last one.
+            System.out.println("\n----------------round " + round + "----------------\n");
+
+            measure("ArrayList + toArray", () -> {
+                List<String> list = new ArrayList<>();
+                for (String s : source) list.add(s);
+                return list.toArray(new String[0]).length; // Grow copies + a final copy to the exact size.
+            });
+
+            measure("List.of(array)", () -> List.of(source).size()); // Copies the array.
+
+            measure("ArrayViews.immutable(array)", () -> ArrayViews.immutable(source).size()); // No copy.
+
+            measure("ArrayBuilder (expected size)", () -> {
+                ArrayBuilder<String> builder = new ArrayBuilder<>(String[]::new, count);
+                for (String s : source) builder.add(s);
+                return builder.build().length; // The only array allocated is returned as it is.
+            });
+
+            measure("ArrayBuilder (unknown size)", () -> {
+                ArrayBuilder<String> builder = new ArrayBuilder<>(String[]::new);
+                for (String s : source) builder.add(s);
+                return builder.build().length; // Chunks are never copied while growing, a single copy at the end.
+            });
+        }
+    }
+
+    private static void measure(String name, java.util.function.IntSupplier work) {
+        long threadId = Thread.currentThread().getId();
+        long bytesBefore = THREADS.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        int size = work.getAsInt();
+        long elapsed = System.nanoTime() - start;
+        long bytes = THREADS.getThreadAllocatedBytes(threadId) - bytesBefore;
+        System.out.printf("%-30s %,d elements %,12d bytes %,8d us%n", name, size, bytes, elapsed / 1_000);
+    }
+}
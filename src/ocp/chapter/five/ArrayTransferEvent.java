@@ -0,0 +1,20 @@
+package ocp.chapter.five;
+
+import jdk.jfr.*;
+
+// Custom JDK Flight Recorder event committed by ArrayBuilder every time it hands out its elements.
+// 'copied' stays 0 when the chunk was handed out without a copy, so a recording shows how many elements were really copied.
+// To record: java -XX:StartFlightRecording=filename=arrays.jfr,settings=profile ocp.chapter.five.ArrayBuilderExample
+// To read:   jfr print --events ocp.chapter.five.ArrayTransfer arrays.jfr
+//            jfr print --events jdk.ObjectAllocationInNewTLAB arrays.jfr (allocation samples of the same run)
+@Name("ocp.chapter.five.ArrayTransfer")
+@Label("Array Transfer")
+@Category("Java Certification")
+class ArrayTransferEvent extends Event {
+
+    @Label("Elements")
+    int elements;
+
+    @Label("Copied Elements")
+    int copied;
+}
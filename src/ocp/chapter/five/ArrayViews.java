@@ -0,0 +1,89 @@
+package ocp.chapter.five;
+
+import java.util.*;
+
+// Array-backed List views, no copy is made when wrapping the array.
+// - immutable(array): like List.of(array) it rejects set/add/remove, but unlike List.of it does not copy the array,
+//   so changes on the original array are reflected in the view (the caller must hand over the array and stop writing to it).
+// - fixedSize(array): behaves like Arrays.asList(array), set() writes through to the array, add/remove throw.
+// Both extend AbstractList, so iterator, equals, hashCode, toString and subList come for free.
+public final class ArrayViews {
+
+    private ArrayViews() { }
+
+    // The views keep the varargs array but never hand it out as an E[] (only its elements, and Object[] copies in toArray),
+    // so keeping it can't pollute the heap. That's why the [varargs] warning is suppressed instead of copying the array.
+    @SafeVarargs
+    @SuppressWarnings("varargs")
+    public static <E> List<E> immutable(E... array) {
+        return new ImmutableView<>(Objects.requireNonNull(array), 0, array.length);
+    }
+
+    // Only the first 'length' elements are exposed, so a builder can hand out a larger backing array without trimming it.
+    public static <E> List<E> immutable(E[] array, int length) {
+        Objects.checkFromIndexSize(0, length, Objects.requireNonNull(array).length);
+        return new ImmutableView<>(array, 0, length);
+    }
+
+    @SafeVarargs
+    @SuppressWarnings("varargs") // Same as immutable(E...)
+    public static <E> List<E> fixedSize(E... array) {
+        return new FixedSizeView<>(Objects.requireNonNull(array));
+    }
+
+    private static class ImmutableView<E> extends AbstractList<E> implements RandomAccess {
+        final E[] array;
+        final int offset;
+        final int size;
+
+        ImmutableView(E[] array, int offset, int size) {
+            this.array = array;
+            this.offset = offset;
+            this.size = size;
+        }
+
+        public E get(int index) {
+            Objects.checkIndex(index, size);
+            return array[offset + index];
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public List<E> subList(int fromIndex, int toIndex) { // The sublist shares the same array, no copy here either.
+            Objects.checkFromToIndex(fromIndex, toIndex, size);
+            return new ImmutableView<>(array, offset + fromIndex, toIndex - fromIndex);
+        }
+
+        public Object[] toArray() {
+            return Arrays.copyOfRange(array, offset, offset + size, Object[].class);
+        }
+    }
+
+    private static class FixedSizeView<E> extends AbstractList<E> implements RandomAccess {
+        final E[] array;
+
+        FixedSizeView(E[] array) {
+            this.array = array;
+        }
+
+        public E get(int index) {
+            return array[index];
+        }
+
+        public E set(int index, E element) { // Write-through, the original array changes too.
+            E old = array[index];
+            array[index] = element;
+            return old;
+        }
+
+        public int size() {
+            return array.length;
+        }
+
+        public Object[] toArray() {
+            return Arrays.copyOf(array, array.length, Object[].class);
+        }
+    }
+}
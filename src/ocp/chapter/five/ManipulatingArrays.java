@@ -26,6 +26,16 @@ public class ManipulatingArrays {
         System.out.println(oneAsList);
         System.out.println(oneListOf);
 
+        List<String> oneView = ArrayViews.immutable(oneArray); // Immutable like List.of, but backed by the array like Arrays.asList (no copy).
+        oneArray[0] = "eagle";
+
+        System.out.println(oneView); // [eagle, robin]
+        System.out.println(oneListOf); // [hawk, robin] - List.of copied the array
+
+        String[] builtArray = new ArrayBuilder<String>(String[]::new, 2).add("owl").add("crow").build(); // Exact size, returned without a copy
+
+        System.out.println(Arrays.toString(builtArray));
+
         classIntArray = new int[] {1, 2, 3}; // Need to instantiate a new object to change the default values of the array
 
         System.out.println(Arrays.toString(classIntArray));
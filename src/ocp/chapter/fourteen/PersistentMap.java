@@ -0,0 +1,461 @@
+package ocp.chapter.fourteen;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.zip.CRC32;
+
+// A Map<String, String> that survives a restart, with the semantics of HashMap for values (null values are allowed, so
+// putIfAbsent("Tom", "Tram") replaces a null like in the favorites example of MapExamples; merge() to null removes the key).
+// Keys can't be null. Not thread safe, like HashMap.
+//
+// - Every put/remove appends a record to a log file that is memory-mapped: a write is a copy into the page cache, it survives a
+//   crash of the process as soon as put() returns (call flush() to also survive a crash of the machine).
+//     record = crc32 (int) + key length (int) + value length (int, -1 for a null value, -2 for a removal) + key + value (UTF-8)
+// - An open addressing hash index (key hash -> offset of the latest record of the key) finds the records. It holds no String,
+//   a lookup compares the key bytes in the log.
+// - The log keeps the old records of overwritten and removed keys. When they take more space than the live records,
+//   compact() rewrites the live records into a new log, then renames it over the old one (the old log stays valid until then).
+// - close() and compact() save the index arrays to '<log>.idx'. open() loads them in bulk and only replays the records written
+//   after that, so reopening doesn't depend on the size of the log. Without a valid index file the whole log is replayed.
+// - Recovery: replaying stops at the first record with a wrong checksum (a write cut by a crash), the log continues from there.
+// The log is limited to 2 GB (one mapping), compaction keeps it around twice the size of the live data.
+public final class PersistentMap extends AbstractMap<String, String> implements Closeable {
+
+    private static final long LOG_MAGIC = 0x5A4F4F4C4F473031L;   // "ZOOLOG01"
+    private static final long INDEX_MAGIC = 0x5A4F4F4944583031L; // "ZOOIDX01"
+    private static final int LOG_HEADER = 16;                    // magic + generation
+    private static final int INDEX_HEADER = 40;
+    private static final int RECORD_HEADER = 12;
+    private static final int NULL_VALUE = -1;
+    private static final int REMOVED = -2;
+    private static final int MIN_COMPACTION = 1 << 20;           // Not worth compacting less than 1 MB of old records
+
+    private final Path path;
+    private final Path indexPath;
+    private FileChannel channel;
+    private MappedByteBuffer log;
+    private long generation; // Changes with each compaction, an index file of another generation is ignored
+    private int end;         // Where the next record goes
+    private long garbage;    // Bytes of records that are no longer the latest of their key
+
+    private int[] hashes;
+    private int[] offsets;   // 0 is an empty slot, records start after the log header so 0 is never an offset
+    private int size;
+    private final CRC32 crc = new CRC32();
+
+    private PersistentMap(Path path) {
+        this.path = path;
+        this.indexPath = Paths.get(path + ".idx");
+    }
+
+    public static PersistentMap open(Path path) throws IOException {
+        PersistentMap map = new PersistentMap(path);
+        Files.deleteIfExists(Paths.get(path + ".compact")); // A compaction that didn't finish, the log is still the old one
+        map.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (map.channel.size() < LOG_HEADER) {
+            map.log = map.channel.map(FileChannel.MapMode.READ_WRITE, 0, 1 << 20);
+            map.generation = System.nanoTime();
+            map.log.putLong(0, LOG_MAGIC).putLong(8, map.generation);
+            map.end = LOG_HEADER;
+            map.emptyIndex(16);
+        } else {
+            if (map.channel.size() > Integer.MAX_VALUE) throw new IOException(path + " is bigger than 2 GB");
+            map.log = map.channel.map(FileChannel.MapMode.READ_WRITE, 0, map.channel.size());
+            if (map.log.getLong(0) != LOG_MAGIC) throw new IOException(path + " isn't a PersistentMap log");
+            map.generation = map.log.getLong(8);
+            if (!map.loadIndex()) {
+                map.end = LOG_HEADER;
+                map.emptyIndex(16);
+            }
+            map.replay();
+        }
+        return map;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof String && find(bytes((String) key)) >= 0;
+    }
+
+    @Override
+    public String get(Object key) {
+        if (!(key instanceof String)) return null;
+        int slot = find(bytes((String) key));
+        return slot >= 0 ? value(offsets[slot]) : null;
+    }
+
+    @Override
+    public String put(String key, String value) {
+        byte[] keyBytes = bytes(Objects.requireNonNull(key, "key"));
+        int slot = find(keyBytes);
+        String old = slot >= 0 ? value(offsets[slot]) : null;
+        int offset = append(keyBytes, value == null ? null : value.getBytes(StandardCharsets.UTF_8), value == null ? NULL_VALUE : 0);
+        if (slot >= 0) {
+            garbage += recordSize(offsets[slot]);
+            offsets[slot] = offset;
+        } else {
+            insert(-slot - 1, hash(keyBytes), offset);
+        }
+        compactIfNeeded();
+        return old;
+    }
+
+    @Override
+    public String remove(Object key) {
+        if (!(key instanceof String)) return null;
+        byte[] keyBytes = bytes((String) key);
+        int slot = find(keyBytes);
+        if (slot < 0) return null;
+        String old = value(offsets[slot]);
+        int offset = append(keyBytes, null, REMOVED);
+        garbage += recordSize(offsets[slot]) + recordSize(offset); // The removal record is only needed until a compaction
+        delete(slot);
+        compactIfNeeded();
+        return old;
+    }
+
+    @Override
+    public void clear() {
+        for (String key : new ArrayList<>(keySet())) remove(key);
+    }
+
+    // Iterates over the keys present when the iterator is created (a compaction during the iteration moves every record, so
+    // the keys are kept rather than the offsets), a key removed in the meantime is skipped. Entry.setValue() and
+    // Iterator.remove() write to the map.
+    @Override
+    public Set<Entry<String, String>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public int size() {
+                return size;
+            }
+
+            @Override
+            public Iterator<Entry<String, String>> iterator() {
+                String[] keys = new String[size];
+                for (int slot = 0, i = 0; slot < offsets.length; slot++) {
+                    if (offsets[slot] != 0) keys[i++] = key(offsets[slot]);
+                }
+                return new Iterator<>() {
+                    private int next;
+                    private int slot = -1; // Slot of the next key, found by hasNext()
+                    private String last;
+
+                    @Override
+                    public boolean hasNext() {
+                        while (slot < 0 && next < keys.length) {
+                            slot = find(bytes(keys[next]));
+                            if (slot < 0) next++;
+                        }
+                        return slot >= 0;
+                    }
+
+                    @Override
+                    public Entry<String, String> next() {
+                        if (!hasNext()) throw new NoSuchElementException();
+                        last = keys[next++];
+                        String value = value(offsets[slot]);
+                        slot = -1;
+                        return new SimpleEntry<>(last, value) {
+                            @Override
+                            public String setValue(String value) {
+                                super.setValue(value);
+                                return PersistentMap.this.put(getKey(), value);
+                            }
+                        };
+                    }
+
+                    @Override
+                    public void remove() {
+                        if (last == null) throw new IllegalStateException();
+                        PersistentMap.this.remove(last);
+                        last = null;
+                    }
+                };
+            }
+        };
+    }
+
+    // Writes the mapped log to the disk, put() and remove() before it survive a power failure.
+    public void flush() {
+        log.force();
+    }
+
+    // Rewrites the live records into a new log, drops the old records of overwritten and removed keys.
+    public void compact() {
+        try {
+            Path compacted = Paths.get(path + ".compact");
+            long newGeneration = generation + 1;
+            int newEnd = LOG_HEADER;
+            for (int offset : offsets) {
+                if (offset != 0) newEnd += recordSize(offset);
+            }
+            int[] newOffsets = new int[offsets.length];
+            try (FileChannel out = FileChannel.open(compacted, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                                                    StandardOpenOption.WRITE)) {
+                MappedByteBuffer target = out.map(FileChannel.MapMode.READ_WRITE, 0, capacity(newEnd));
+                target.putLong(0, LOG_MAGIC).putLong(8, newGeneration);
+                int position = LOG_HEADER;
+                for (int slot = 0; slot < offsets.length; slot++) {
+                    if (offsets[slot] == 0) continue;
+                    int length = recordSize(offsets[slot]);
+                    ByteBuffer record = log.duplicate();
+                    record.limit(offsets[slot] + length).position(offsets[slot]);
+                    target.position(position);
+                    target.put(record); // Same bytes, the checksum stays valid
+                    newOffsets[slot] = position; // Same slots: the hashes and the probe sequences don't change
+                    position += length;
+                }
+                target.force();
+            }
+            channel.close();
+            Files.move(compacted, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            log = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+            generation = newGeneration;
+            offsets = newOffsets;
+            end = newEnd;
+            garbage = 0;
+            saveIndex();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public long garbage() {
+        return garbage;
+    }
+
+    public int logSize() {
+        return end;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel == null || !channel.isOpen()) return;
+        flush();
+        saveIndex();
+        channel.close();
+    }
+
+    // --- log ---
+
+    private int append(byte[] key, byte[] value, int valueLength) {
+        int length = RECORD_HEADER + key.length + (value == null ? 0 : value.length);
+        ensureCapacity(length);
+        if (value != null) valueLength = value.length;
+        int offset = end;
+        log.putInt(offset + 4, key.length).putInt(offset + 8, valueLength);
+        log.position(offset + RECORD_HEADER);
+        log.put(key);
+        if (value != null) log.put(value);
+        log.putInt(offset, checksum(offset, length)); // Last, a record cut before this has a wrong checksum
+        end += length;
+        return offset;
+    }
+
+    private void ensureCapacity(int length) {
+        if ((long) end + length <= log.capacity()) return;
+        if ((long) end + length > Integer.MAX_VALUE && garbage > 0) compact(); // Keeps the slots, the caller's slot stays valid
+        long needed = (long) end + length;
+        if (needed <= log.capacity()) return;
+        if (needed > Integer.MAX_VALUE) throw new IllegalStateException("The log of " + path + " is full (2 GB)");
+        try { // Mapping past the end of the file makes the file bigger
+            log = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity(needed));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static long capacity(long needed) {
+        return Math.min(Integer.MAX_VALUE, Math.max(1 << 20, Long.highestOneBit(needed - 1) << 1));
+    }
+
+    private void compactIfNeeded() {
+        if (garbage > MIN_COMPACTION && garbage > end - garbage) compact();
+    }
+
+    // Replays the records from 'end', stops at the end of the file or at the first record that isn't complete.
+    private void replay() {
+        while (end + RECORD_HEADER <= log.capacity()) {
+            int keyLength = log.getInt(end + 4);
+            int valueLength = log.getInt(end + 8);
+            long length = RECORD_HEADER + (long) keyLength + Math.max(0, valueLength);
+            if (keyLength < 0 || valueLength < REMOVED || end + length > log.capacity()
+                    || log.getInt(end) != checksum(end, (int) length)) {
+                break;
+            }
+            byte[] key = new byte[keyLength];
+            log.duplicate().position(end + RECORD_HEADER).get(key);
+            int slot = find(key);
+            if (valueLength == REMOVED) {
+                garbage += length;
+                if (slot >= 0) {
+                    garbage += recordSize(offsets[slot]);
+                    delete(slot);
+                }
+            } else if (slot >= 0) {
+                garbage += recordSize(offsets[slot]);
+                offsets[slot] = end;
+            } else {
+                insert(-slot - 1, hash(key), end);
+            }
+            end += (int) length;
+        }
+        if (end + RECORD_HEADER <= log.capacity() && (log.getInt(end) != 0 || log.getInt(end + 4) != 0 || log.getInt(end + 8) != 0)) {
+            // What's left of a cut record: cleared, so the records written over it can't end in the middle of its old bytes
+            long cut = RECORD_HEADER + (long) Math.max(0, log.getInt(end + 4)) + Math.max(0, log.getInt(end + 8));
+            for (long i = end; i < Math.min(log.capacity(), end + cut); i++) log.put((int) i, (byte) 0);
+        }
+    }
+
+    private int checksum(int offset, int length) {
+        ByteBuffer record = log.duplicate();
+        record.limit(offset + length).position(offset + 4);
+        crc.reset();
+        crc.update(record);
+        return (int) crc.getValue();
+    }
+
+    private int recordSize(int offset) {
+        return RECORD_HEADER + log.getInt(offset + 4) + Math.max(0, log.getInt(offset + 8));
+    }
+
+    private String key(int offset) {
+        return decode(offset + RECORD_HEADER, log.getInt(offset + 4));
+    }
+
+    private String value(int offset) {
+        int length = log.getInt(offset + 8);
+        return length < 0 ? null : decode(offset + RECORD_HEADER + log.getInt(offset + 4), length);
+    }
+
+    private String decode(int from, int length) {
+        byte[] bytes = new byte[length];
+        log.duplicate().position(from).get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] bytes(String string) {
+        return string.getBytes(StandardCharsets.UTF_8);
+    }
+
+    // --- index ---
+
+    private static int hash(byte[] key) {
+        int hash = Arrays.hashCode(key);
+        return hash ^ hash >>> 16;
+    }
+
+    // The slot of the key, or -(free slot where it would go) - 1.
+    private int find(byte[] key) {
+        int hash = hash(key);
+        int mask = offsets.length - 1;
+        for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+            if (offsets[slot] == 0) return -slot - 1;
+            if (hashes[slot] == hash && keyEquals(offsets[slot], key)) return slot;
+        }
+    }
+
+    private boolean keyEquals(int offset, byte[] key) {
+        if (log.getInt(offset + 4) != key.length) return false;
+        for (int i = 0; i < key.length; i++) {
+            if (log.get(offset + RECORD_HEADER + i) != key[i]) return false;
+        }
+        return true;
+    }
+
+    private void insert(int slot, int hash, int offset) {
+        hashes[slot] = hash;
+        offsets[slot] = offset;
+        if (++size * 2 > offsets.length) rehash(offsets.length * 2); // At most half full, the probe sequences stay short
+    }
+
+    // Linear probing can't just empty a slot, a later key of the same probe sequence would no longer be found: the keys after
+    // it are moved back into the hole when their home slot allows it.
+    private void delete(int slot) {
+        int mask = offsets.length - 1;
+        int hole = slot;
+        for (int next = (hole + 1) & mask; offsets[next] != 0; next = (next + 1) & mask) {
+            int home = hashes[next] & mask;
+            boolean movable = hole <= next ? home <= hole || home > next : home <= hole && home > next;
+            if (movable) {
+                hashes[hole] = hashes[next];
+                offsets[hole] = offsets[next];
+                hole = next;
+            }
+        }
+        offsets[hole] = 0;
+        size--;
+    }
+
+    private void rehash(int capacity) {
+        int[] oldHashes = hashes;
+        int[] oldOffsets = offsets;
+        hashes = new int[capacity];
+        offsets = new int[capacity];
+        int mask = capacity - 1;
+        for (int i = 0; i < oldOffsets.length; i++) {
+            if (oldOffsets[i] == 0) continue;
+            int slot = oldHashes[i] & mask;
+            while (offsets[slot] != 0) slot = (slot + 1) & mask;
+            hashes[slot] = oldHashes[i];
+            offsets[slot] = oldOffsets[i];
+        }
+    }
+
+    private void emptyIndex(int capacity) {
+        hashes = new int[capacity];
+        offsets = new int[capacity];
+        size = 0;
+        garbage = 0;
+    }
+
+    // index file = magic, log generation, log end, garbage (longs), capacity, size (ints), hashes, offsets
+    private void saveIndex() throws IOException {
+        Path temporary = Paths.get(indexPath + ".tmp");
+        ByteBuffer index = ByteBuffer.allocate(INDEX_HEADER + offsets.length * 8).order(ByteOrder.nativeOrder());
+        index.putLong(INDEX_MAGIC).putLong(generation).putLong(end).putLong(garbage).putInt(offsets.length).putInt(size);
+        index.asIntBuffer().put(hashes).put(offsets);
+        index.position(0);
+        try (FileChannel out = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (index.hasRemaining()) out.write(index);
+            out.force(false);
+        }
+        Files.move(temporary, indexPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // Loads the index saved for this generation of the log, false when there's none (or it doesn't match the log).
+    private boolean loadIndex() throws IOException {
+        if (!Files.exists(indexPath)) return false;
+        try (FileChannel in = FileChannel.open(indexPath, StandardOpenOption.READ)) {
+            if (in.size() < INDEX_HEADER || in.size() > Integer.MAX_VALUE) return false;
+            ByteBuffer index = in.map(FileChannel.MapMode.READ_ONLY, 0, in.size()).order(ByteOrder.nativeOrder());
+            long savedEnd = index.getLong(16);
+            int capacity = index.getInt(32);
+            if (index.getLong(0) != INDEX_MAGIC || index.getLong(8) != generation || savedEnd < LOG_HEADER
+                    || savedEnd > log.capacity() || Integer.bitCount(capacity) != 1
+                    || in.size() != INDEX_HEADER + (long) capacity * 8) {
+                return false;
+            }
+            hashes = new int[capacity];
+            offsets = new int[capacity];
+            IntBuffer arrays = index.position(INDEX_HEADER).slice().order(ByteOrder.nativeOrder()).asIntBuffer();
+            arrays.get(hashes).get(offsets);
+            end = (int) savedEnd;
+            garbage = index.getLong(24);
+            size = index.getInt(36);
+            return true;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package ocp.chapter.fourteen;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+import java.util.function.*;
+
+// The maps of MapExamples on a PersistentMap, next to a HashMap doing the same operations, then:
+// - reopening a map of many entries with the index file saved by close(), and without it (the whole log is replayed)
+// - a process that ends without close(), and a record cut in the middle of a write
+// java -Xmx2g ocp.chapter.fourteen.PersistentMapExample [entries]
+public class PersistentMapExample {
+
+    public static void main(String... args) throws IOException {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        Path directory = Files.createTempDirectory("persistent-map");
+        try {
+            favorites(directory);
+            reopen(directory.resolve("large.log"), count);
+            crash(directory.resolve("crash.log"));
+        } finally {
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+                for (Path file : files) Files.delete(file);
+            }
+            Files.delete(directory);
+        }
+    }
+
+    private static void favorites(Path directory) throws IOException {
+        Path file = directory.resolve("favorites.log");
+        Map<String, String> expected = new HashMap<>();
+        try (PersistentMap favorites = PersistentMap.open(file)) {
+            for (Map<String, String> map : List.of(expected, favorites)) {
+                map.put("Jenny", "Bus Tour");
+                map.put("Tom", null);
+                map.putIfAbsent("Jenny", "Tram");
+                map.putIfAbsent("Sam", "Tram");
+                map.putIfAbsent("Tom", "Tram"); // Replaces the null value
+            }
+            System.out.println(favorites + " " + check(expected, favorites));
+        }
+
+        BiFunction<String, String, String> mapper = (v1, v2) -> v1.length() > v2.length() ? v1 : v2;
+        try (PersistentMap favorites = PersistentMap.open(file)) { // Reopened, the values are still there
+            System.out.println(favorites + " " + check(expected, favorites));
+            for (Map<String, String> map : List.of(expected, favorites)) {
+                map.put("Tom", "Tram");
+                String jenny = map.merge("Jenny", "Skyride", mapper);
+                String tom = map.merge("Tom", "Skyride", mapper);
+                map.merge("Sam", "Skyride", (v1, v2) -> null); // null removes the key
+                map.replaceAll((k, v) -> k + " -> " + v);
+                System.out.println(map + " " + jenny + " " + tom);
+            }
+        }
+        try (PersistentMap favorites = PersistentMap.open(file)) {
+            System.out.println(favorites + " " + check(expected, favorites));
+        }
+    }
+
+    private static void reopen(Path file, int count) throws IOException {
+        System.out.println();
+        long start = System.nanoTime();
+        try (PersistentMap map = PersistentMap.open(file)) {
+            for (int i = 0; i < count; i++) map.put("animal-" + i, "bamboo");
+            report("put " + count, start, map);
+            for (String food : List.of("leaf", "eucalyptus")) { // The old records become garbage, then they're compacted
+                start = System.nanoTime();
+                for (int i = 0; i < count; i++) map.put("animal-" + i, food);
+                report("overwrite " + count, start, map);
+            }
+        }
+
+        for (int round = 0; round < 3; round++) {
+            System.out.println("\n----------------round " + round + "----------------\n");
+            start = System.nanoTime();
+            try (PersistentMap map = PersistentMap.open(file)) {
+                report("reopen with the index", start, map);
+                check(count, map.size());
+                check(1, "eucalyptus".equals(map.get("animal-" + count / 2)) ? 1 : 0);
+            }
+            Path index = Paths.get(file + ".idx");
+            Files.delete(index);
+            start = System.nanoTime();
+            try (PersistentMap map = PersistentMap.open(file)) { // close() writes the index again
+                report("reopen replaying the log", start, map);
+                check(count, map.size());
+            }
+        }
+    }
+
+    private static void crash(Path file) throws IOException {
+        System.out.println();
+        PersistentMap saved = PersistentMap.open(file);
+        saved.put("koala", "bamboo");
+        saved.close();
+
+        // put() after the last close(): the index file doesn't have them, the log does (the page cache of the mapping is shared
+        // with the next open, like after the process ended)
+        PersistentMap crashed = PersistentMap.open(file); // Never closed
+        crashed.put("lion", "meat");
+        crashed.put("giraffe", "leaf");
+        crashed.remove("koala");
+        int end = crashed.logSize();
+
+        // A record cut by the crash: its header is written, its checksum and bytes aren't
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            ByteBuffer cut = ByteBuffer.allocate(16).putInt(0).putInt(7).putInt(4).put("dolp".getBytes()).flip();
+            channel.write(cut, end);
+        }
+
+        try (PersistentMap recovered = PersistentMap.open(file)) {
+            System.out.println("recovered " + recovered + " " + check(Map.of("lion", "meat", "giraffe", "leaf"), recovered));
+            check(end, recovered.logSize());
+            recovered.put("dolphin", "water"); // Over the cut record
+        }
+        try (PersistentMap reopened = PersistentMap.open(file)) {
+            System.out.println("reopened  " + reopened);
+            check(3, reopened.size());
+        }
+    }
+
+    private static String check(Map<String, String> expected, Map<String, String> actual) {
+        if (!expected.equals(actual) || !actual.equals(expected)) throw new AssertionError(expected + " != " + actual);
+        return "(same as HashMap)";
+    }
+
+    private static void check(long expected, long actual) {
+        if (expected != actual) throw new AssertionError(expected + " != " + actual);
+    }
+
+    private static void report(String name, long start, PersistentMap map) {
+        System.out.printf("%-26s %8.1f ms (%,d entries, log %,d bytes, %,d garbage)%n", name,
+                          (System.nanoTime() - start) / 1e6, map.size(), map.logSize(), map.garbage());
+    }
+}
@@ -0,0 +1,6 @@
+package ocp.chapter.nine;
+
+abstract class Animal {
+
+    protected abstract void makeNoise(String a);
+}
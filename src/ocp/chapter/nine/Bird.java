@@ -0,0 +1,15 @@
+package ocp.chapter.nine;
+
+abstract class Bird extends Animal implements Fly { // This class isn't instantiable
+
+    public abstract String getName();
+
+    protected void makeNoise(String a) { // The first concrete subclass of Bird and Animal (Stork) will not need to override this method, since it's 
+                                         // overridden here as a nonabstract method. It could be redeclared here as an abstract method too.
+        System.out.println(a);
+    }
+
+    public void printName() {
+        System.out.println(getName());
+    }
+}
@@ -0,0 +1,53 @@
+package ocp.chapter.nine;
+
+// More concrete birds for DispatchBenchmark, so the same call site can see one, two or five Bird types (Stork and these).
+// makeNoise() is overridden to count instead of print, the benchmark calls it millions of times.
+final class Birds {
+
+    private Birds() { }
+
+    static class Owl extends Bird {
+
+        int noises;
+
+        public String getName() { return "OWL!"; }
+
+        protected void makeNoise(String a) { noises += a.length(); }
+    }
+
+    static class Parrot extends Bird {
+
+        int noises;
+
+        public String getName() { return "PARROT!"; }
+
+        protected void makeNoise(String a) { noises += a.length() + 1; }
+    }
+
+    static class Crow extends Bird {
+
+        int noises;
+
+        public String getName() { return "CROW!"; }
+
+        protected void makeNoise(String a) { noises += a.length() + 2; }
+    }
+
+    static class Sparrow extends Bird {
+
+        int noises;
+
+        public String getName() { return "SPARROW!"; }
+
+        protected void makeNoise(String a) { noises += a.length() + 3; }
+    }
+
+    static class Woodpecker extends Bird {
+
+        int noises;
+
+        public String getName() { return "WOODPECKER!"; }
+
+        protected void makeNoise(String a) { noises += a.length() + 4; }
+    }
+}
@@ -0,0 +1,117 @@
+package ocp.chapter.nine;
+
+import java.util.*;
+import java.util.function.*;
+
+// Cost of calling an overridden method when one, two or many Bird types reach the same call site:
+// - monomorphic (1 type seen): C2 inlines the single target behind a cheap class check.
+// - bimorphic (2 types): C2 inlines both targets behind an if/else on the class.
+// - megamorphic (3+ types): no inlining, a vtable lookup and an indirect call per element.
+// - switch / instanceof: the SealedBird variant, no virtual call at all and the targets are inlined whatever the profile. With
+//   the birds in random order the branches are still mispredicted, so 5 kinds don't come for free: the gain over the
+//   megamorphic call is the inlining (constants folded, no call), not the branching.
+// The profile is kept per call site (bytecode), so each case has its own loop method: one shared loop would be megamorphic
+// for every case as soon as the mega case has run once.
+// java ocp.chapter.nine.DispatchBenchmark [elements]
+// java -XX:TypeProfileMajorReceiverPercent=... / -XX:-UseTypeProfile ocp.chapter.nine.DispatchBenchmark - to play with the profiling.
+public class DispatchBenchmark {
+
+    public static void main(String... args) {
+        int elements = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        Random random = new Random(9);
+
+        Bird[] one = birds(elements, random, Stork::new);
+        Bird[] two = birds(elements, random, Stork::new, Birds.Owl::new);
+        Bird[] five = birds(elements, random, Stork::new, Birds.Owl::new, Birds.Parrot::new, Birds.Crow::new, Birds.Sparrow::new);
+        Bird[] oneNoisy = birds(elements, random, Birds.Owl::new);
+        Bird[] twoNoisy = birds(elements, random, Birds.Owl::new, Birds.Parrot::new);
+        Bird[] fiveNoisy = birds(elements, random, Birds.Owl::new, Birds.Parrot::new, Birds.Crow::new, Birds.Sparrow::new, Birds.Woodpecker::new);
+        SealedBird[] sealedOne = sealedBirds(elements, random, SealedBird.SealedStork::new);
+        SealedBird[] sealedFive = sealedBirds(elements, random, SealedBird.SealedStork::new, SealedBird.SealedOwl::new, SealedBird.SealedParrot::new,
+                                              SealedBird.SealedCrow::new, SealedBird.SealedSparrow::new);
+
+        for (int round = 0; round < 5; round++) {
+            System.out.println("\n----------------round " + round + "----------------\n");
+            time("getName() monomorphic", elements, () -> nameMono(one));
+            time("getName() bimorphic", elements, () -> nameBi(two));
+            time("getName() megamorphic", elements, () -> nameMega(five));
+            time("makeNoise() monomorphic", elements, () -> noiseMono(oneNoisy));
+            time("makeNoise() bimorphic", elements, () -> noiseBi(twoNoisy));
+            time("makeNoise() megamorphic", elements, () -> noiseMega(fiveNoisy));
+            time("switch on kind, 1 kind", elements, () -> switchOne(sealedOne));
+            time("switch on kind, 5 kinds", elements, () -> switchFive(sealedFive));
+            time("instanceof chain, 5 types", elements, () -> instanceofFive(sealedFive));
+        }
+    }
+
+    private static long nameMono(Bird[] birds) {
+        long sum = 0;
+        for (Bird bird : birds) sum += bird.getName().length();
+        return sum;
+    }
+
+    private static long nameBi(Bird[] birds) {
+        long sum = 0;
+        for (Bird bird : birds) sum += bird.getName().length();
+        return sum;
+    }
+
+    private static long nameMega(Bird[] birds) {
+        long sum = 0;
+        for (Bird bird : birds) sum += bird.getName().length();
+        return sum;
+    }
+
+    private static long noiseMono(Bird[] birds) {
+        for (Bird bird : birds) bird.makeNoise("Piu piu");
+        return birds.length;
+    }
+
+    private static long noiseBi(Bird[] birds) {
+        for (Bird bird : birds) bird.makeNoise("Piu piu");
+        return birds.length;
+    }
+
+    private static long noiseMega(Bird[] birds) {
+        for (Bird bird : birds) bird.makeNoise("Piu piu");
+        return birds.length;
+    }
+
+    private static long switchOne(SealedBird[] birds) {
+        long sum = 0;
+        for (SealedBird bird : birds) sum += SealedBird.name(bird).length();
+        return sum;
+    }
+
+    private static long switchFive(SealedBird[] birds) {
+        long sum = 0;
+        for (SealedBird bird : birds) sum += SealedBird.name(bird).length();
+        return sum;
+    }
+
+    private static long instanceofFive(SealedBird[] birds) {
+        long sum = 0;
+        for (SealedBird bird : birds) sum += SealedBird.nameByType(bird).length();
+        return sum;
+    }
+
+    @SafeVarargs
+    private static Bird[] birds(int elements, Random random, Supplier<? extends Bird>... types) {
+        Bird[] birds = new Bird[elements];
+        for (int i = 0; i < elements; i++) birds[i] = types[random.nextInt(types.length)].get(); // Random order, no pattern to predict
+        return birds;
+    }
+
+    @SafeVarargs
+    private static SealedBird[] sealedBirds(int elements, Random random, Supplier<? extends SealedBird>... types) {
+        SealedBird[] birds = new SealedBird[elements];
+        for (int i = 0; i < elements; i++) birds[i] = types[random.nextInt(types.length)].get();
+        return birds;
+    }
+
+    private static void time(String name, int elements, LongSupplier loop) {
+        long start = System.nanoTime();
+        long result = loop.getAsLong();
+        System.out.printf("%-28s %6.2f ns/op (%d)%n", name, (double) (System.nanoTime() - start) / elements, result);
+    }
+}
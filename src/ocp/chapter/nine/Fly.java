@@ -0,0 +1,3 @@
+package ocp.chapter.nine;
+
+interface Fly { }
@@ -0,0 +1,60 @@
+package ocp.chapter.nine;
+
+// The Bird hierarchy as a closed set of types, the Java 11 way of writing a sealed hierarchy:
+// - the constructor is private, so only the classes nested in SealedBird can extend it
+// - every subclass is final
+// - each subclass passes its Kind, so code can switch over the kind instead of calling an overridden method.
+// From Java 17 this is 'abstract sealed class SealedBird permits SealedStork, SealedOwl, ...' and the switch can be a pattern
+// switch over the type (case SealedOwl o -> ...), the compiler then checks that every subtype is covered.
+abstract class SealedBird implements Fly {
+
+    enum Kind { STORK, OWL, PARROT, CROW, SPARROW }
+
+    final Kind kind;
+
+    private SealedBird(Kind kind) {
+        this.kind = kind;
+    }
+
+    // A tableswitch on the ordinal: the same cost for 1 or 5 kinds, no type profile involved.
+    static String name(SealedBird bird) {
+        switch (bird.kind) {
+            case STORK: return "STORK!";
+            case OWL: return "OWL!";
+            case PARROT: return "PARROT!";
+            case CROW: return "CROW!";
+            case SPARROW: return "SPARROW!";
+            default: throw new AssertionError(bird.kind); // Can't happen, the set of kinds is closed
+        }
+    }
+
+    // What a type pattern switch does without a tag: test the types one by one, the later types pay for every earlier test.
+    static String nameByType(SealedBird bird) {
+        if (bird instanceof SealedStork) return "STORK!";
+        if (bird instanceof SealedOwl) return "OWL!";
+        if (bird instanceof SealedParrot) return "PARROT!";
+        if (bird instanceof SealedCrow) return "CROW!";
+        if (bird instanceof SealedSparrow) return "SPARROW!";
+        throw new AssertionError(bird.getClass());
+    }
+
+    static final class SealedStork extends SealedBird {
+        SealedStork() { super(Kind.STORK); }
+    }
+
+    static final class SealedOwl extends SealedBird {
+        SealedOwl() { super(Kind.OWL); }
+    }
+
+    static final class SealedParrot extends SealedBird {
+        SealedParrot() { super(Kind.PARROT); }
+    }
+
+    static final class SealedCrow extends SealedBird {
+        SealedCrow() { super(Kind.CROW); }
+    }
+
+    static final class SealedSparrow extends SealedBird {
+        SealedSparrow() { super(Kind.SPARROW); }
+    }
+}
@@ -0,0 +1,8 @@
+package ocp.chapter.nine;
+
+class Stork extends Bird {
+
+    public String getName() { // Must override the parent's abstract methods, or else the class will not compile (Bird.java l.5).
+        return "STORK!";
+    }
+}
@@ -0,0 +1,45 @@
+package ocp.chapter.seven;
+
+import java.util.*;
+
+// Reports how long each class takes to be initialized (its static variable initializers and static {} blocks, compiled into <clinit>).
+// Each class is loaded first without being initialized, then Class.forName(name, true, loader) runs only the initialization, so the
+// two times are reported apart. The initialization time is inclusive: if a static block uses another class that isn't initialized yet,
+// that class's <clinit> time is counted too (list that class first to see it on its own line).
+// java ocp.chapter.seven.ClinitProfiler ocp.chapter.seven.StaticExamples ocp.chapter.eight.InitializationExample
+// For the full picture of a real startup: java -Xlog:class+load -Xlog:startuptime ... (and -verbose:class on older JDKs).
+public class ClinitProfiler {
+
+    private static final String[] DEFAULT_CLASSES = {
+        "ocp.chapter.seven.StaticExamples",
+        "ocp.chapter.seven.StaticExamples$SecondsTable",
+        "ocp.chapter.eight.InitializationExample"
+    };
+
+    public static void main(String... args) {
+        String[] classNames = args.length > 0 ? args : DEFAULT_CLASSES;
+        ClassLoader loader = ClinitProfiler.class.getClassLoader();
+
+        List<String> lines = new ArrayList<>();
+        long totalInit = 0;
+        for (String className : classNames) {
+            try {
+                long start = System.nanoTime();
+                Class.forName(className, false, loader); // Load and link, but don't initialize.
+                long loaded = System.nanoTime();
+                Class.forName(className, true, loader);  // Runs <clinit> (does nothing if it was already initialized).
+                long initialized = System.nanoTime();
+
+                totalInit += initialized - loaded;
+                lines.add(String.format("%-50s load %,8d us  <clinit> %,8d us", className, (loaded - start) / 1_000, (initialized - loaded) / 1_000));
+            } catch (ClassNotFoundException e) {
+                lines.add(String.format("%-50s not found", className));
+            } catch (ExceptionInInitializerError e) { // Thrown when a static initializer throws an exception.
+                lines.add(String.format("%-50s <clinit> failed: %s", className, e.getCause()));
+            }
+        }
+
+        lines.forEach(System.out::println);
+        System.out.printf("Total <clinit>: %,d us%n", totalInit / 1_000);
+    }
+}
@@ -0,0 +1,47 @@
+package ocp.chapter.seven;
+
+import java.util.Objects;
+import java.util.function.Supplier;
+
+// A constant computed on first use instead of in a static {} block, which runs as soon as the class is initialized.
+// For a single static constant the holder class idiom is simpler (see StaticExamples.SecondsTable), since the JVM already
+// initializes a class lazily and thread-safely. This class is for the cases a holder can't cover, like constants created
+// at runtime or stored in fields of other objects.
+// - get() uses double-checked locking: after the first call, it is just a volatile read.
+// - The supplier is dropped after it runs, so whatever it captured can be garbage collected.
+public final class LazyConstant<T> implements Supplier<T> {
+
+    private Supplier<? extends T> supplier;
+    private volatile T value;
+
+    private LazyConstant(Supplier<? extends T> supplier) {
+        this.supplier = supplier;
+    }
+
+    public static <T> LazyConstant<T> of(Supplier<? extends T> supplier) {
+        return new LazyConstant<>(Objects.requireNonNull(supplier));
+    }
+
+    public T get() {
+        T result = value;
+        if (result == null) {
+            synchronized (this) {
+                result = value;
+                if (result == null) {
+                    result = Objects.requireNonNull(supplier.get(), "LazyConstant supplier returned null");
+                    value = result;
+                    supplier = null;
+                }
+            }
+        }
+        return result;
+    }
+
+    public boolean isInitialized() {
+        return value != null;
+    }
+
+    public String toString() {
+        return isInitialized() ? String.valueOf(value) : "LazyConstant[not initialized]";
+    }
+}
@@ -1,5 +1,7 @@
 package ocp.chapter.seven;
 
+import java.util.function.Supplier;
+
 public class StaticExamples {
 
     private static final int NUM_SECOND_PER_MINUTE;
@@ -15,6 +17,29 @@ public class StaticExamples {
         NUM_SECONDS_PER_HOUR = NUM_SECOND_PER_MINUTE * NUM_MINUTES_PER_HOUR;
     }
 
+    // Holder class idiom: the nested class is only initialized (and its static block only runs) the first time
+    // SecondsTable.SECONDS_PER_HOUR is read, instead of when StaticExamples is initialized.
+    private static class SecondsTable {
+        static final int[] SECONDS_PER_HOUR = new int[24];
+
+        static {
+            for (int hour = 0; hour < SECONDS_PER_HOUR.length; hour++)
+                SECONDS_PER_HOUR[hour] = hour * NUM_SECONDS_PER_HOUR;
+        }
+    }
+
+    // Same idea for values that can't live in a holder class, the supplier runs on the first get().
+    // A named class rather than a lambda: a lambda here would be bootstrapped (invokedynamic) when StaticExamples is initialized,
+    // which costs far more than the work it defers.
+    private static final LazyConstant<String> HOURS_DESCRIPTION = LazyConstant.of(new HoursDescription());
+
+    private static final class HoursDescription implements Supplier<String> {
+        @Override
+        public String get() {
+            return "24 hours = " + (SecondsTable.SECONDS_PER_HOUR[23] + NUM_SECONDS_PER_HOUR) + " seconds";
+        }
+    }
+
     private String name = "Static class";
     public static void first() { }
     public static void second() { }
@@ -32,5 +57,8 @@ public class StaticExamples {
         new StaticExamples().third(); // Will compile normally
 
         System.out.println(NUM_SECONDS_PER_HOUR);
+
+        System.out.println(HOURS_DESCRIPTION.isInitialized()); // false - nothing has read it yet
+        System.out.println(HOURS_DESCRIPTION.get()); // 24 hours = 86400 seconds - initializes SecondsTable too
     }
 }
\ No newline at end of file
@@ -0,0 +1,61 @@
+package ocp.chapter.seven;
+
+import java.lang.management.ManagementFactory;
+
+// Shows how many bytes each call allocates with varargs and with the fixed-arity overloads (same idea of VarargsExample).
+// - Fixed arity: no array at all, in the interpreter or compiled.
+// - Varargs: the caller creates the array (32 bytes for 3 ints). After C2 compiles the loop and inlines varargsOnly(int...),
+//   it sees that the array never leaves the loop and removes the allocation, so the bytes per call drop to 0 in the later rounds.
+//   Until then (interpreter and C1 compiled code) every call allocates.
+// java ocp.chapter.seven.VarargsAllocationExample
+// java -XX:TieredStopAtLevel=1 ocp.chapter.seven.VarargsAllocationExample - C1 only, every varargs call allocates.
+// java -Xint ocp.chapter.seven.VarargsAllocationExample 1000000           - Interpreter only, same.
+public class VarargsAllocationExample {
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    static int sum(int... nums) {
+        int sum = 0;
+        for (int n : nums) sum += n;
+        return sum;
+    }
+
+    static int sum() { return 0; }
+    static int sum(int n1) { return n1; }
+    static int sum(int n1, int n2) { return n1 + n2; }
+    static int sum(int n1, int n2, int n3) { return n1 + n2 + n3; }
+    static int sum(int n1, int n2, int n3, int n4) { return n1 + n2 + n3 + n4; }
+
+    static int varargsOnly(int... nums) { // Same body as sum(int...), but without overloads, so every call goes through the array.
+        int sum = 0;
+        for (int n : nums) sum += n;
+        return sum;
+    }
+
+    public static void main(String... args) {
+        int calls = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+
+        for (int round = 0; round < 5; round++) {
+            System.out.println("\n----------------round " + round + "----------------\n");
+
+            long threadId = Thread.currentThread().getId();
+            int result = 0;
+
+            long bytes = THREADS.getThreadAllocatedBytes(threadId);
+            long start = System.nanoTime();
+            for (int i = 0; i < calls; i++) result += varargsOnly(i, 2, 3);
+            report("varargs", calls, THREADS.getThreadAllocatedBytes(threadId) - bytes, System.nanoTime() - start, result);
+
+            result = 0;
+            bytes = THREADS.getThreadAllocatedBytes(threadId);
+            start = System.nanoTime();
+            for (int i = 0; i < calls; i++) result += sum(i, 2, 3); // Picks sum(int, int, int)
+            report("fixed arity", calls, THREADS.getThreadAllocatedBytes(threadId) - bytes, System.nanoTime() - start, result);
+        }
+    }
+
+    private static void report(String name, int calls, long bytes, long elapsed, int result) {
+        System.out.printf("%-12s %6.2f bytes/call %6.2f ns/call (%d)%n", name, (double) bytes / calls, (double) elapsed / calls, result);
+    }
+}
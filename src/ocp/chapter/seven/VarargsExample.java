@@ -2,13 +2,29 @@ package ocp.chapter.seven;
 
 public class VarargsExample {
 
+    static final int[] EMPTY = {}; // Shared array for calls without varargs, an empty array can't be changed, so sharing it is safe.
+
+    // Fixed-arity overloads: Java picks an exact match (or widening/boxing) before trying varargs, so walk(1) and walk(1, 2)
+    // call these methods and no array is created. walk(1, 2, 3, 4, 5, 6) or walk(1, new int[] {4, 5}) still use the varargs version.
+    public static void walk(int start) { walk(start, EMPTY); }
+    public static void walk(int start, int n1) { System.out.println(1); }
+    public static void walk(int start, int n1, int n2) { System.out.println(2); }
+    public static void walk(int start, int n1, int n2, int n3) { System.out.println(3); }
+    public static void walk(int start, int n1, int n2, int n3, int n4) { System.out.println(4); }
+
     public static void walk(int start, int... nums) {
-     
+
         System.out.println(nums.length);
     }
 
+    public static void run() { run(EMPTY); } // Throws ArrayIndexOutOfBoundsException, like run(int...) with no values.
+    public static void run(int n1) { run(new int[] {n1}); } // Same as above.
+    public static void run(int n1, int n2) { System.out.println(n2); }
+    public static void run(int n1, int n2, int n3) { System.out.println(n2); }
+    public static void run(int n1, int n2, int n3, int n4) { System.out.println(n2); }
+
     public static void run(int... nums) {
-     
+
         System.out.println(nums[1]); // Accessing a varargs parameter is just like accessing an array.
     }
 
@@ -21,4 +37,4 @@ public class VarargsExample {
 
         run(11, 22); // 22
     }
-}
\ No newline at end of file
+}
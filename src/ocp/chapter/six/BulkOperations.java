@@ -0,0 +1,173 @@
+package ocp.chapter.six;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.*;
+import java.util.stream.*;
+
+// Parallel versions of the bulk operations used in LambdaApiUsage (removeIf, replaceAll, sort, forEach), run on a ForkJoinPool.
+// - Collections smaller than 'threshold' (or lists without fast random access, like LinkedList) just call the sequential
+//   method, so small collections don't pay for creating and joining tasks.
+// - Lists are split by index into chunks of at least 'threshold' elements, about four per pool thread, so a slow chunk can be
+//   balanced by the others (work stealing).
+// - removeIf compacts in place, without a BitSet of removed elements like ArrayList.removeIf builds: each chunk tests its
+//   elements and moves the kept ones to the start of its own range in parallel, then the chunks are slid down in order and the
+//   tail is cut off. A kept element is swapped with the removed one it replaces instead of overwriting it, so if the filter
+//   throws no element is lost or duplicated: the list keeps all its elements, but a chunk may be partly compacted (reordered).
+//   Only an ArrayList takes this path: other lists may not support set() (Arrays.asList) or copy their array on each set()
+//   (CopyOnWriteArrayList), they use their own removeIf.
+// The lambdas run on several threads at once, so they must not change shared state without synchronization.
+public final class BulkOperations {
+
+    private final ForkJoinPool pool;
+    private final int threshold;
+
+    public BulkOperations(ForkJoinPool pool, int threshold) {
+        if (threshold < 1) throw new IllegalArgumentException("threshold must be positive: " + threshold);
+        this.pool = Objects.requireNonNull(pool);
+        this.threshold = threshold;
+    }
+
+    public static BulkOperations common() {
+        return new BulkOperations(ForkJoinPool.commonPool(), 8_192);
+    }
+
+    public <T> void forEach(List<T> list, Consumer<? super T> action) {
+        if (sequential(list)) {
+            list.forEach(action);
+            return;
+        }
+        inChunks(list.size(), (from, to) -> {
+            for (int i = from; i < to; i++) action.accept(list.get(i));
+            return 0;
+        });
+    }
+
+    public <T> void replaceAll(List<T> list, UnaryOperator<T> operator) {
+        if (sequential(list)) {
+            list.replaceAll(operator);
+            return;
+        }
+        inChunks(list.size(), (from, to) -> { // set() on different indexes doesn't change the list structure, it's safe in parallel
+            for (int i = from; i < to; i++) list.set(i, operator.apply(list.get(i)));
+            return 0;
+        });
+    }
+
+    public <T> boolean removeIf(List<T> list, Predicate<? super T> filter) {
+        if (sequential(list) || list.getClass() != ArrayList.class) return list.removeIf(filter);
+
+        int size = list.size();
+        int chunk = chunkSize(size);
+        int[] kept = inChunks(size, (from, to) -> { // Parallel: tests and compacts each chunk in place, in one pass
+            int write = from;
+            for (int read = from; read < to; read++) {
+                T element = list.get(read);
+                if (!filter.test(element)) {
+                    if (write != read) list.set(read, list.set(write, element)); // Swap: the removed element goes to 'read'
+                    write++;
+                }
+            }
+            return write - from;
+        });
+
+        int write = kept[0]; // Sequential: slides each compacted chunk down right after the previous one
+        for (int c = 1; c < kept.length; c++) {
+            int from = c * chunk;
+            for (int i = 0; i < kept[c]; i++) list.set(write++, list.get(from + i));
+        }
+        if (write == size) return false;
+        list.subList(write, size).clear(); // ArrayList removes a tail range with a single clear, no shifting
+        return true;
+    }
+
+    public <T> void sort(List<T> list, Comparator<? super T> comparator) {
+        if (sequential(list)) {
+            list.sort(comparator);
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        T[] array = (T[]) list.toArray();
+        pool.invoke(ForkJoinTask.adapt(() -> Arrays.parallelSort(array, comparator))); // Sorts with the tasks of this pool
+        ListIterator<T> iterator = list.listIterator();
+        for (T element : array) {
+            iterator.next();
+            iterator.set(element);
+        }
+    }
+
+    public <K, V> void forEach(Map<K, V> map, BiConsumer<? super K, ? super V> action) {
+        if (map.size() < threshold) {
+            map.forEach(action);
+        } else if (map instanceof ConcurrentHashMap) {
+            pool.invoke(ForkJoinTask.adapt(() -> ((ConcurrentHashMap<K, V>) map).forEach(threshold, action)));
+        } else { // HashMap, TreeMap... their entry set spliterators split the map without copying it
+            pool.invoke(ForkJoinTask.adapt(() ->
+                StreamSupport.stream(map.entrySet().spliterator(), true).forEach(e -> action.accept(e.getKey(), e.getValue()))));
+        }
+    }
+
+    public <K, V> void replaceAll(Map<K, V> map, BiFunction<? super K, ? super V, ? extends V> function) {
+        if (map.size() < threshold) {
+            map.replaceAll(function);
+            return;
+        }
+        // setValue() on different entries doesn't change the map structure, it's safe in parallel
+        pool.invoke(ForkJoinTask.adapt(() ->
+            StreamSupport.stream(map.entrySet().spliterator(), true).forEach(e -> e.setValue(function.apply(e.getKey(), e.getValue())))));
+    }
+
+    // Tests the entries in parallel, then removes the matching keys on the calling thread: the map is unchanged if the filter
+    // throws, and a map that isn't thread safe is never changed by several threads.
+    public <K, V> boolean removeIf(Map<K, V> map, BiPredicate<? super K, ? super V> filter) {
+        if (map.size() < threshold) return map.entrySet().removeIf(e -> filter.test(e.getKey(), e.getValue()));
+        List<K> keys = pool.invoke(ForkJoinTask.adapt(() ->
+            StreamSupport.stream(map.entrySet().spliterator(), true)
+                .filter(e -> filter.test(e.getKey(), e.getValue()))
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList())));
+        for (K key : keys) map.remove(key);
+        return !keys.isEmpty();
+    }
+
+    private boolean sequential(List<?> list) {
+        return list.size() < threshold || !(list instanceof RandomAccess) || pool.getParallelism() == 1;
+    }
+
+    private int chunkSize(int size) {
+        return Math.max(threshold, (size + pool.getParallelism() * 4 - 1) / (pool.getParallelism() * 4));
+    }
+
+    @FunctionalInterface
+    private interface ChunkTask {
+        int run(int from, int to);
+    }
+
+    // Runs the task for each chunk of [0, size) in the pool, returns the result of each chunk in order.
+    private int[] inChunks(int size, ChunkTask task) {
+        int chunk = chunkSize(size);
+        int[] results = new int[(size + chunk - 1) / chunk];
+        List<Callable<Void>> tasks = new ArrayList<>(results.length);
+        for (int c = 0; c < results.length; c++) {
+            int index = c;
+            tasks.add(() -> {
+                results[index] = task.run(index * chunk, Math.min(size, (index + 1) * chunk));
+                return null;
+            });
+        }
+        for (Future<Void> future : pool.invokeAll(tasks)) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+                if (cause instanceof Error) throw (Error) cause;
+                throw new IllegalStateException(cause);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException("Interrupted");
+            }
+        }
+        return results;
+    }
+}
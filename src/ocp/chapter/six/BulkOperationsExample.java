@@ -0,0 +1,72 @@
+package ocp.chapter.six;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+// The LambdaApiUsage calls with BulkOperations: the small collections stay sequential, the big ones run in parallel.
+public class BulkOperationsExample {
+
+    public static void main(String... args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 5_000_000;
+        ForkJoinPool pool = new ForkJoinPool(Math.max(2, Runtime.getRuntime().availableProcessors()));
+        BulkOperations bulk = new BulkOperations(pool, 8_192);
+
+        List<String> bunnies = new ArrayList<>(List.of("long ear", "floppy", "hoppy"));
+        bulk.removeIf(bunnies, s -> s.charAt(0) != 'h'); // 3 elements, below the threshold: just bunnies.removeIf
+        System.out.println(bunnies); // [hoppy]
+
+        System.out.println("\n----------------------------------------\n");
+
+        for (int round = 0; round < 3; round++) {
+            List<Integer> sequential = numbers(size);
+            List<Integer> parallel = numbers(size);
+
+            long start = System.nanoTime();
+            sequential.replaceAll(n -> heavy(n));
+            sequential.removeIf(n -> n % 3 == 0);
+            sequential.sort(Comparator.reverseOrder());
+            long sequentialTime = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            bulk.replaceAll(parallel, n -> heavy(n));
+            bulk.removeIf(parallel, n -> n % 3 == 0);
+            bulk.sort(parallel, Comparator.reverseOrder());
+            long parallelTime = System.nanoTime() - start;
+
+            if (!sequential.equals(parallel)) throw new AssertionError("Different results");
+            System.out.printf("%,d elements (%,d left): sequential %,d ms, parallel on %d threads %,d ms%n",
+                size, parallel.size(), sequentialTime / 1_000_000, pool.getParallelism(), parallelTime / 1_000_000);
+        }
+
+        Map<String, Integer> cats = new HashMap<>();
+        for (int i = 0; i < 100_000; i++) cats.put("cat" + i, i);
+        bulk.replaceAll(cats, (k, v) -> v * 2);
+        System.out.println(cats.get("cat21")); // 42
+        bulk.removeIf(cats, (k, v) -> v % 4 != 0);
+        System.out.println(cats.size() + " " + cats.get("cat22")); // 50000 44
+
+        List<Integer> failing = numbers(100_000);
+        List<Integer> copy = new ArrayList<>(failing);
+        try {
+            bulk.removeIf(failing, n -> { if (n.equals(copy.get(95_000))) throw new IllegalStateException(); return n % 2 == 0; });
+        } catch (IllegalStateException e) {
+            failing.sort(null); // Compacted in place up to the failure: same elements, maybe in another order
+            copy.sort(null);
+            System.out.println("filter failed, no element lost: " + failing.equals(copy)); // true
+        }
+        pool.shutdown();
+    }
+
+    private static List<Integer> numbers(int size) {
+        List<Integer> list = new ArrayList<>(size);
+        Random random = new Random(7);
+        for (int i = 0; i < size; i++) list.add(random.nextInt(1_000_000));
+        return list;
+    }
+
+    private static int heavy(int n) { // Some work per element, so there is something to parallelize
+        int x = n;
+        for (int i = 0; i < 20; i++) x = x * 31 + i;
+        return Math.floorMod(x, 1_000_000);
+    }
+}
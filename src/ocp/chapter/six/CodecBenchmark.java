@@ -0,0 +1,130 @@
+package ocp.chapter.six;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+
+// Size and speed of the Animal records with RecordWriter/RecordReader against Java serialization (ObjectOutputStream):
+// - Java serialization writes the class description once and then each object with its fields, a String name as a new
+//   string the first time each instance is seen (the generated names here are all different instances). Animal isn't
+//   Serializable, so it serializes a SerializedAnimal with the same two fields for each one.
+// - The codec writes each distinct name once in the dictionary, then 3 bytes per Animal (frame header, flags, name index).
+// - "lazy" only reads the flag of each record, "objects" creates an Animal per record with get().
+// java -Xmx2g ocp.chapter.six.CodecBenchmark [animals]
+public class CodecBenchmark {
+
+    private static final RecordSchema<Animal> SCHEMA = RecordSchema.<Animal>builder()
+        .dictionary("name", Animal::toString)
+        .flag("canHop", Animal::canHop)
+        .build(view -> new Animal(view.string(0), view.flag(1)));
+
+    public static void main(String... args) throws Exception {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        String[] names = { "Fish", "Kangaroo", "Rabbit", "Turtle", "Frog", "Cricket", "Wallaby", "Hare", "Flea", "Toad" };
+        Random random = new Random(6);
+        List<Animal> animals = new ArrayList<>(count);
+        int expectedHoppers = 0;
+        for (int i = 0; i < count; i++) {
+            String name = new String(names[random.nextInt(names.length)]); // A new instance, like names read from anywhere
+            boolean canHop = random.nextBoolean();
+            if (canHop) expectedHoppers++;
+            animals.add(new Animal(name, canHop));
+        }
+        List<SerializedAnimal> serialized = new ArrayList<>(count);
+        for (Animal animal : animals) serialized.add(new SerializedAnimal(animal.toString(), animal.canHop()));
+        int hop = SCHEMA.field("canHop");
+
+        for (int round = 0; round < 3; round++) {
+            System.out.println("\n----------------round " + round + "----------------\n");
+
+            long start = System.nanoTime();
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+                out.writeObject(serialized);
+            }
+            report("java serialization write", start, count, bytes.size());
+
+            start = System.nanoTime();
+            List<?> read;
+            try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+                read = (List<?>) in.readObject();
+            }
+            report("java serialization read", start, count, read.size());
+
+            start = System.nanoTime();
+            ByteBuffer buffer = ByteBuffer.allocate(count * 4 + 1024);
+            RecordWriter<Animal> writer = new RecordWriter<>(SCHEMA, buffer);
+            for (Animal animal : animals) writer.write(animal);
+            buffer.flip();
+            report("codec write", start, count, buffer.remaining());
+
+            start = System.nanoTime();
+            RecordReader<Animal> reader = new RecordReader<>(SCHEMA, buffer);
+            int hoppers = 0;
+            while (reader.next()) {
+                if (reader.flag(hop)) hoppers++;
+            }
+            report("codec read lazy", start, count, check(expectedHoppers, hoppers));
+
+            start = System.nanoTime();
+            reader = new RecordReader<>(SCHEMA, buffer);
+            List<Animal> decoded = new ArrayList<>(count);
+            while (reader.next()) decoded.add(reader.get());
+            report("codec read objects", start, count, decoded.size());
+            check(animals.get(count / 2).toString().equals(decoded.get(count / 2).toString()) ? 1 : 0, 1);
+
+            Path file = Files.createTempFile("animals", ".zrc");
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.READ)) {
+                start = System.nanoTime();
+                try (RecordWriter<Animal> out = new RecordWriter<>(SCHEMA, channel)) {
+                    for (Animal animal : animals) out.write(animal);
+                }
+                report("codec write to file", start, count, channel.size());
+
+                start = System.nanoTime();
+                channel.position(0);
+                reader = RecordReader.open(SCHEMA, channel); // Mapped
+                hoppers = 0;
+                while (reader.next()) {
+                    if (reader.flag(hop)) hoppers++;
+                }
+                report("codec read mapped lazy", start, count, check(expectedHoppers, hoppers));
+
+                start = System.nanoTime();
+                channel.position(0);
+                reader = new RecordReader<>(SCHEMA, channel); // Streamed through a 64 KB buffer
+                hoppers = 0;
+                while (reader.next()) {
+                    if (reader.flag(hop)) hoppers++;
+                }
+                report("codec read streamed lazy", start, count, check(expectedHoppers, hoppers));
+            } finally {
+                Files.delete(file);
+            }
+        }
+    }
+
+    // The fields of an Animal, for ObjectOutputStream.
+    private static final class SerializedAnimal implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final String name;
+        private final boolean canHop;
+
+        SerializedAnimal(String name, boolean canHop) {
+            this.name = name;
+            this.canHop = canHop;
+        }
+    }
+
+    private static long check(long expected, long actual) {
+        if (expected != actual) throw new AssertionError(expected + " != " + actual);
+        return actual;
+    }
+
+    private static void report(String name, long start, int count, long result) {
+        System.out.printf("%-26s %7.1f ns/animal (%,d)%n", name, (double) (System.nanoTime() - start) / count, result);
+    }
+}
@@ -17,6 +17,8 @@ public class ComparatorExample {
 
         System.out.println(ints.compare(5, 3)); // 2 - The ints comparator uses natural sort order. If it returns a positive number
                                                 // that means the first number is bigger and we are sorting in ascending order.
+                                                // Obs.: i1 - i2 overflows for values far apart (Integer.MIN_VALUE and 1), Integer.compare
+                                                // doesn't. IntComparator does the same without boxing (see PrimitiveComparatorExample).
 
         System.out.println();
 
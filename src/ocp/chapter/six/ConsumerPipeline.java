@@ -0,0 +1,100 @@
+package ocp.chapter.six;
+
+import java.util.*;
+
+// A chain of ContextConsumers fused into one stage.
+// consumer.andThen(other).andThen(another) creates a wrapper per andThen, and nesting pipelines nests the wrappers too.
+// Here the stages are flattened into one list (andThen() on a pipeline concatenates the lists), then composed once into a fixed
+// shape: one stage is called directly, two or three stages go in a Two/Three node that calls each one from its own call site,
+// longer pipelines nest those nodes. So each stage position has its own call site, which the JIT can inline as long as it only
+// sees one stage class. A loop over an array of stages would have one call site for all of them, megamorphic (a virtual call
+// the JIT can't inline) as soon as three stage classes go through it.
+// The call sites of Two and Three are still shared by every pipeline of the program: many different pipelines on the same hot
+// path bring back the megamorphic calls, this is for a few pipelines that run very often.
+public final class ConsumerPipeline<C> implements ContextConsumer<C> {
+
+    private final List<ContextConsumer<C>> stages;
+    private final ContextConsumer<C> fused;
+
+    private ConsumerPipeline(List<ContextConsumer<C>> stages) {
+        this.stages = List.copyOf(stages);
+        this.fused = fuse(this.stages, 0, this.stages.size());
+    }
+
+    @SafeVarargs
+    public static <C> ConsumerPipeline<C> of(ContextConsumer<C>... stages) {
+        if (stages.length == 0) throw new IllegalArgumentException("A pipeline needs at least one stage");
+        List<ContextConsumer<C>> flat = new ArrayList<>();
+        for (ContextConsumer<C> stage : stages) add(flat, Objects.requireNonNull(stage));
+        return new ConsumerPipeline<>(flat);
+    }
+
+    public ConsumerPipeline<C> andThen(ContextConsumer<C> next) {
+        List<ContextConsumer<C>> flat = new ArrayList<>(stages);
+        add(flat, Objects.requireNonNull(next));
+        return new ConsumerPipeline<>(flat);
+    }
+
+    public void accept(C context, String value) {
+        fused.accept(context, value);
+    }
+
+    // Same as calling accept() for each value, in order.
+    public void acceptAll(C context, String[] values) {
+        ContextConsumer<C> fused = this.fused;
+        for (String value : values) fused.accept(context, value);
+    }
+
+    public int size() {
+        return stages.size();
+    }
+
+    private static <C> void add(List<ContextConsumer<C>> flat, ContextConsumer<C> stage) {
+        if (stage instanceof ConsumerPipeline) flat.addAll(((ConsumerPipeline<C>) stage).stages); // Fuses nested pipelines
+        else flat.add(stage);
+    }
+
+    private static <C> ContextConsumer<C> fuse(List<ContextConsumer<C>> stages, int from, int to) {
+        switch (to - from) {
+            case 1: return stages.get(from);
+            case 2: return new Two<>(stages.get(from), stages.get(from + 1));
+            case 3: return new Three<>(stages.get(from), stages.get(from + 1), stages.get(from + 2));
+            default: return new Two<>(fuse(stages, from, from + 3), fuse(stages, from + 3, to));
+        }
+    }
+
+    private static final class Two<C> implements ContextConsumer<C> {
+        private final ContextConsumer<C> first;
+        private final ContextConsumer<C> second;
+
+        Two(ContextConsumer<C> first, ContextConsumer<C> second) {
+            this.first = first;
+            this.second = second;
+        }
+
+        @Override
+        public void accept(C context, String value) {
+            first.accept(context, value);
+            second.accept(context, value);
+        }
+    }
+
+    private static final class Three<C> implements ContextConsumer<C> {
+        private final ContextConsumer<C> first;
+        private final ContextConsumer<C> second;
+        private final ContextConsumer<C> third;
+
+        Three(ContextConsumer<C> first, ContextConsumer<C> second, ContextConsumer<C> third) {
+            this.first = first;
+            this.second = second;
+            this.third = third;
+        }
+
+        @Override
+        public void accept(C context, String value) {
+            first.accept(context, value);
+            second.accept(context, value);
+            third.accept(context, value);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package ocp.chapter.six;
+
+import java.lang.management.ManagementFactory;
+import java.util.function.Consumer;
+
+// The ConsumerExample.caw() callback written with a reusable context instead of captured variables,
+// and the bytes allocated per event of each version.
+// The pipeline allocates nothing in every tier. The capturing lambda allocates until C2 compiles caw() and its escape analysis
+// removes the lambda object, after that both allocate nothing and the pipeline isn't faster (the appends dominate).
+public class ConsumerPipelineExample {
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private static String color = "Red";
+
+    // Mutable context, created once and reused for every event (one per thread, it's not thread-safe).
+    static class CawContext {
+        String volume = "loudly";
+        final StringBuilder out = new StringBuilder(128);
+        long events;
+    }
+
+    // None of these lambdas capture anything: the name comes as the value, the rest from the context (color is a static field).
+    static final ConsumerPipeline<CawContext> CAW = ConsumerPipeline.<CawContext>of(
+            (ctx, name) -> ctx.out.append(name).append(" says ").append(ctx.volume).append(" that she is ").append(color))
+        .andThen((ctx, name) -> ctx.events++);
+
+    public static void main(String... args) {
+        CawContext context = new CawContext();
+        CAW.accept(context, "Fulana");
+        System.out.println(context.out); // Fulana says loudly that she is Red
+        System.out.println(CAW.size()); // 2 - the andThen stage was fused into the same pipeline
+
+        int events = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+        String[] names = new String[1_000];
+        for (int i = 0; i < names.length; i++) names[i] = "Bird" + i;
+        StringBuilder capturedOut = new StringBuilder(128);
+
+        for (int round = 0; round < 3; round++) {
+            System.out.println("\n----------------round " + round + "----------------\n");
+            long threadId = Thread.currentThread().getId();
+
+            long bytes = THREADS.getThreadAllocatedBytes(threadId);
+            long start = System.nanoTime();
+            for (int i = 0; i < events; i++) caw(names[i % names.length], capturedOut);
+            report("capturing lambda", events, THREADS.getThreadAllocatedBytes(threadId) - bytes, System.nanoTime() - start);
+
+            bytes = THREADS.getThreadAllocatedBytes(threadId);
+            start = System.nanoTime();
+            for (int i = 0; i < events; i++) {
+                context.out.setLength(0);
+                CAW.accept(context, names[i % names.length]);
+            }
+            report("pipeline + context", events, THREADS.getThreadAllocatedBytes(threadId) - bytes, System.nanoTime() - start);
+
+            bytes = THREADS.getThreadAllocatedBytes(threadId);
+            start = System.nanoTime();
+            for (int i = 0; i < events / names.length; i++) {
+                context.out.setLength(0);
+                CAW.acceptAll(context, names); // One sentence per name
+            }
+            report("pipeline acceptAll", events, THREADS.getThreadAllocatedBytes(threadId) - bytes, System.nanoTime() - start);
+        }
+    }
+
+    // Same shape as ConsumerExample.caw(): a new lambda capturing name, volume and out is created on every call.
+    private static void caw(String name, StringBuilder out) {
+        String volume = "loudly";
+        Consumer<String> consumer = s -> {
+            out.setLength(0);
+            out.append(name).append(" says ").append(volume).append(" that she is ").append(color);
+        };
+        consumer.accept("");
+    }
+
+    private static void report(String name, int events, long bytes, long elapsed) {
+        System.out.printf("%-20s %6.2f bytes/event %6.2f ns/event%n", name, (double) bytes / events, (double) elapsed / events);
+    }
+}
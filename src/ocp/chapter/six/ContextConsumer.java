@@ -0,0 +1,9 @@
+package ocp.chapter.six;
+
+// Like Consumer<String>, but the state the lambda needs comes in a context object instead of being captured.
+// A lambda that doesn't capture anything is created once and reused by the JVM (no allocation when the expression is evaluated),
+// while a capturing lambda like the one in ConsumerExample.caw() is a new object every time the method runs.
+@FunctionalInterface
+public interface ContextConsumer<C> {
+    void accept(C context, String value);
+}
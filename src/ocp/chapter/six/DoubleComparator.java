@@ -0,0 +1,29 @@
+package ocp.chapter.six;
+
+import java.util.function.DoubleUnaryOperator;
+
+// Comparator for double values without boxing. Use Double.compare instead of 'a < b' checks or a subtraction: it gives a total
+// order, with -0.0 before 0.0 and NaN after every other value, like Arrays.sort(double[]) does.
+@FunctionalInterface
+public interface DoubleComparator {
+    int compare(double a, double b);
+
+    static DoubleComparator naturalOrder() {
+        return Double::compare;
+    }
+
+    static DoubleComparator comparing(DoubleUnaryOperator key) {
+        return (a, b) -> Double.compare(key.applyAsDouble(a), key.applyAsDouble(b));
+    }
+
+    default DoubleComparator reversed() {
+        return (a, b) -> compare(b, a);
+    }
+
+    default DoubleComparator thenComparing(DoubleComparator other) {
+        return (a, b) -> {
+            int result = compare(a, b);
+            return result != 0 ? result : other.compare(a, b);
+        };
+    }
+}
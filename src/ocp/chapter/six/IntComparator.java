@@ -0,0 +1,30 @@
+package ocp.chapter.six;
+
+import java.util.function.IntUnaryOperator;
+
+// Comparator for int values without boxing: compare(int, int) takes the primitives, Comparator<Integer> takes two Integer objects.
+// Use Integer.compare instead of 'a - b': the subtraction overflows when the values are far apart
+// (Integer.MIN_VALUE - 1 is Integer.MAX_VALUE), and a positive result for a smaller value breaks the sort.
+@FunctionalInterface
+public interface IntComparator {
+    int compare(int a, int b);
+
+    static IntComparator naturalOrder() {
+        return Integer::compare;
+    }
+
+    static IntComparator comparing(IntUnaryOperator key) {
+        return (a, b) -> Integer.compare(key.applyAsInt(a), key.applyAsInt(b));
+    }
+
+    default IntComparator reversed() {
+        return (a, b) -> compare(b, a); // Swaps the arguments instead of negating the result, -Integer.MIN_VALUE is still negative
+    }
+
+    default IntComparator thenComparing(IntComparator other) {
+        return (a, b) -> {
+            int result = compare(a, b);
+            return result != 0 ? result : other.compare(a, b);
+        };
+    }
+}
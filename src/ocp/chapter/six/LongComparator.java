@@ -0,0 +1,29 @@
+package ocp.chapter.six;
+
+import java.util.function.LongUnaryOperator;
+
+// IntComparator for long values. Same reasons to use Long.compare: 'a - b' overflows (Long.MIN_VALUE - 1 is Long.MAX_VALUE), and
+// with longs even a correct difference doesn't fit in the int result.
+@FunctionalInterface
+public interface LongComparator {
+    int compare(long a, long b);
+
+    static LongComparator naturalOrder() {
+        return Long::compare;
+    }
+
+    static LongComparator comparing(LongUnaryOperator key) {
+        return (a, b) -> Long.compare(key.applyAsLong(a), key.applyAsLong(b));
+    }
+
+    default LongComparator reversed() {
+        return (a, b) -> compare(b, a); // Swaps the arguments, like IntComparator.reversed()
+    }
+
+    default LongComparator thenComparing(LongComparator other) {
+        return (a, b) -> {
+            int result = compare(a, b);
+            return result != 0 ? result : other.compare(a, b);
+        };
+    }
+}
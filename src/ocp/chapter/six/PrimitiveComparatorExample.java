@@ -0,0 +1,52 @@
+package ocp.chapter.six;
+
+import java.util.*;
+
+// IntComparator vs Comparator<Integer>: correctness at the int limits and the cost of boxing when sorting.
+// java -Xmx4g ocp.chapter.six.PrimitiveComparatorExample 100000000
+public class PrimitiveComparatorExample {
+
+    public static void main(String... args) {
+
+        Comparator<Integer> ints = (i1, i2) -> i1 - i2; // The ComparatorExample version
+        System.out.println(ints.compare(Integer.MIN_VALUE, 1)); // 2147483647 - MIN_VALUE - 1 overflows, it says MIN_VALUE is bigger!
+
+        IntComparator natural = IntComparator.naturalOrder();
+        System.out.println(natural.compare(Integer.MIN_VALUE, 1)); // -1
+        System.out.println(natural.reversed().compare(Integer.MIN_VALUE, Integer.MAX_VALUE)); // 1
+
+        int[] values = { 3, Integer.MAX_VALUE, -7, Integer.MIN_VALUE, 12, 0, -7 };
+        PrimitiveSorts.sort(values, IntComparator.comparing(Math::abs).thenComparing(natural.reversed())); // Math.abs(MIN_VALUE) is MIN_VALUE
+        System.out.println(Arrays.toString(values)); // [-2147483648, 0, 3, -7, -7, 12, 2147483647]
+
+        double[] doubles = { 2.5, Double.NaN, -0.0, 0.0, Double.NEGATIVE_INFINITY };
+        PrimitiveSorts.sort(doubles, DoubleComparator.naturalOrder().reversed());
+        System.out.println(Arrays.toString(doubles)); // [NaN, 2.5, 0.0, -0.0, -Infinity]
+
+        System.out.println("\n----------------------------------------\n");
+
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+        Random random = new Random(42);
+        int[] data = new int[size];
+        for (int i = 0; i < size; i++) data[i] = random.nextInt(); // Full int range, 'i1 - i2' would not sort these correctly
+
+        for (int round = 0; round < 2; round++) {
+            Integer[] boxed = new Integer[size];
+            for (int i = 0; i < size; i++) boxed[i] = data[i];
+            long start = System.nanoTime();
+            Arrays.sort(boxed, Comparator.<Integer>reverseOrder());
+            long boxedTime = System.nanoTime() - start;
+
+            int[] primitive = data.clone();
+            start = System.nanoTime();
+            PrimitiveSorts.sort(primitive, IntComparator.naturalOrder().reversed());
+            long primitiveTime = System.nanoTime() - start;
+
+            for (int i = 0; i < size; i++)
+                if (boxed[i] != primitive[i]) throw new AssertionError("Different order at " + i);
+
+            System.out.printf("%,d ints descending: Comparator<Integer> %,d ms, IntComparator %,d ms%n",
+                size, boxedTime / 1_000_000, primitiveTime / 1_000_000);
+        }
+    }
+}
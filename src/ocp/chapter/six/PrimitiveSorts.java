@@ -0,0 +1,248 @@
+package ocp.chapter.six;
+
+// Sorts primitive arrays with IntComparator, LongComparator or DoubleComparator, no value is ever boxed.
+// Arrays.sort(int[]) only sorts in natural order, and a custom order would need an Integer[] and a Comparator<Integer>
+// (16 bytes per Integer object plus the reference, and a pointer to follow on every comparison).
+// The algorithm is an introsort: quicksort with a median of three pivot and a 3-way partition (fast with many duplicates),
+// insertion sort for small ranges, and heapsort when the recursion gets too deep, so the worst case is O(n log n).
+// Like Arrays.sort for primitives, it is not stable (equal values can't be told apart anyway, unless the comparator uses a key).
+public final class PrimitiveSorts {
+
+    private static final int INSERTION_SORT = 24;
+
+    private PrimitiveSorts() { }
+
+    public static void sort(int[] a, IntComparator c) {
+        sort(a, 0, a.length, c);
+    }
+
+    public static void sort(int[] a, int from, int to, IntComparator c) {
+        java.util.Objects.checkFromToIndex(from, to, a.length);
+        quickSort(a, from, to - 1, c, 2 * (32 - Integer.numberOfLeadingZeros(Math.max(1, to - from))));
+    }
+
+    private static void quickSort(int[] a, int lo, int hi, IntComparator c, int depth) {
+        while (hi - lo >= INSERTION_SORT) {
+            if (depth-- == 0) {
+                heapSort(a, lo, hi, c);
+                return;
+            }
+            // Median of three as the pivot, then a 3-way partition: [lo, lt) < pivot, [lt, gt] == pivot, (gt, hi] > pivot
+            int mid = (lo + hi) >>> 1;
+            if (c.compare(a[mid], a[lo]) < 0) swap(a, mid, lo);
+            if (c.compare(a[hi], a[lo]) < 0) swap(a, hi, lo);
+            if (c.compare(a[hi], a[mid]) < 0) swap(a, hi, mid);
+            int pivot = a[mid];
+            int lt = lo, gt = hi, i = lo;
+            while (i <= gt) {
+                int cmp = c.compare(a[i], pivot);
+                if (cmp < 0) swap(a, lt++, i++);
+                else if (cmp > 0) swap(a, i, gt--);
+                else i++;
+            }
+            if (lt - lo < hi - gt) { // Recurses into the smaller side, so the stack depth stays O(log n)
+                quickSort(a, lo, lt - 1, c, depth);
+                lo = gt + 1;
+            } else {
+                quickSort(a, gt + 1, hi, c, depth);
+                hi = lt - 1;
+            }
+        }
+        insertionSort(a, lo, hi, c);
+    }
+
+    private static void insertionSort(int[] a, int lo, int hi, IntComparator c) {
+        for (int i = lo + 1; i <= hi; i++) {
+            int value = a[i];
+            int j = i - 1;
+            while (j >= lo && c.compare(a[j], value) > 0) {
+                a[j + 1] = a[j];
+                j--;
+            }
+            a[j + 1] = value;
+        }
+    }
+
+    private static void heapSort(int[] a, int lo, int hi, IntComparator c) {
+        int n = hi - lo + 1;
+        for (int i = n / 2 - 1; i >= 0; i--) siftDown(a, lo, i, n, c);
+        for (int end = n - 1; end > 0; end--) {
+            swap(a, lo, lo + end);
+            siftDown(a, lo, 0, end, c);
+        }
+    }
+
+    private static void siftDown(int[] a, int lo, int i, int n, IntComparator c) {
+        int value = a[lo + i];
+        while (2 * i + 1 < n) {
+            int child = 2 * i + 1;
+            if (child + 1 < n && c.compare(a[lo + child + 1], a[lo + child]) > 0) child++;
+            if (c.compare(a[lo + child], value) <= 0) break;
+            a[lo + i] = a[lo + child];
+            i = child;
+        }
+        a[lo + i] = value;
+    }
+
+    private static void swap(int[] a, int i, int j) {
+        int t = a[i];
+        a[i] = a[j];
+        a[j] = t;
+    }
+
+    public static void sort(long[] a, LongComparator c) {
+        sort(a, 0, a.length, c);
+    }
+
+    public static void sort(long[] a, int from, int to, LongComparator c) {
+        java.util.Objects.checkFromToIndex(from, to, a.length);
+        quickSort(a, from, to - 1, c, 2 * (32 - Integer.numberOfLeadingZeros(Math.max(1, to - from))));
+    }
+
+    private static void quickSort(long[] a, int lo, int hi, LongComparator c, int depth) {
+        while (hi - lo >= INSERTION_SORT) {
+            if (depth-- == 0) {
+                heapSort(a, lo, hi, c);
+                return;
+            }
+            // Median of three as the pivot, then a 3-way partition: [lo, lt) < pivot, [lt, gt] == pivot, (gt, hi] > pivot
+            int mid = (lo + hi) >>> 1;
+            if (c.compare(a[mid], a[lo]) < 0) swap(a, mid, lo);
+            if (c.compare(a[hi], a[lo]) < 0) swap(a, hi, lo);
+            if (c.compare(a[hi], a[mid]) < 0) swap(a, hi, mid);
+            long pivot = a[mid];
+            int lt = lo, gt = hi, i = lo;
+            while (i <= gt) {
+                int cmp = c.compare(a[i], pivot);
+                if (cmp < 0) swap(a, lt++, i++);
+                else if (cmp > 0) swap(a, i, gt--);
+                else i++;
+            }
+            if (lt - lo < hi - gt) { // Recurses into the smaller side, so the stack depth stays O(log n)
+                quickSort(a, lo, lt - 1, c, depth);
+                lo = gt + 1;
+            } else {
+                quickSort(a, gt + 1, hi, c, depth);
+                hi = lt - 1;
+            }
+        }
+        insertionSort(a, lo, hi, c);
+    }
+
+    private static void insertionSort(long[] a, int lo, int hi, LongComparator c) {
+        for (int i = lo + 1; i <= hi; i++) {
+            long value = a[i];
+            int j = i - 1;
+            while (j >= lo && c.compare(a[j], value) > 0) {
+                a[j + 1] = a[j];
+                j--;
+            }
+            a[j + 1] = value;
+        }
+    }
+
+    private static void heapSort(long[] a, int lo, int hi, LongComparator c) {
+        int n = hi - lo + 1;
+        for (int i = n / 2 - 1; i >= 0; i--) siftDown(a, lo, i, n, c);
+        for (int end = n - 1; end > 0; end--) {
+            swap(a, lo, lo + end);
+            siftDown(a, lo, 0, end, c);
+        }
+    }
+
+    private static void siftDown(long[] a, int lo, int i, int n, LongComparator c) {
+        long value = a[lo + i];
+        while (2 * i + 1 < n) {
+            int child = 2 * i + 1;
+            if (child + 1 < n && c.compare(a[lo + child + 1], a[lo + child]) > 0) child++;
+            if (c.compare(a[lo + child], value) <= 0) break;
+            a[lo + i] = a[lo + child];
+            i = child;
+        }
+        a[lo + i] = value;
+    }
+
+    private static void swap(long[] a, int i, int j) {
+        long t = a[i];
+        a[i] = a[j];
+        a[j] = t;
+    }
+
+    public static void sort(double[] a, DoubleComparator c) {
+        sort(a, 0, a.length, c);
+    }
+
+    public static void sort(double[] a, int from, int to, DoubleComparator c) {
+        java.util.Objects.checkFromToIndex(from, to, a.length);
+        quickSort(a, from, to - 1, c, 2 * (32 - Integer.numberOfLeadingZeros(Math.max(1, to - from))));
+    }
+
+    private static void quickSort(double[] a, int lo, int hi, DoubleComparator c, int depth) {
+        while (hi - lo >= INSERTION_SORT) {
+            if (depth-- == 0) {
+                heapSort(a, lo, hi, c);
+                return;
+            }
+            // Median of three as the pivot, then a 3-way partition: [lo, lt) < pivot, [lt, gt] == pivot, (gt, hi] > pivot
+            int mid = (lo + hi) >>> 1;
+            if (c.compare(a[mid], a[lo]) < 0) swap(a, mid, lo);
+            if (c.compare(a[hi], a[lo]) < 0) swap(a, hi, lo);
+            if (c.compare(a[hi], a[mid]) < 0) swap(a, hi, mid);
+            double pivot = a[mid];
+            int lt = lo, gt = hi, i = lo;
+            while (i <= gt) {
+                int cmp = c.compare(a[i], pivot);
+                if (cmp < 0) swap(a, lt++, i++);
+                else if (cmp > 0) swap(a, i, gt--);
+                else i++;
+            }
+            if (lt - lo < hi - gt) { // Recurses into the smaller side, so the stack depth stays O(log n)
+                quickSort(a, lo, lt - 1, c, depth);
+                lo = gt + 1;
+            } else {
+                quickSort(a, gt + 1, hi, c, depth);
+                hi = lt - 1;
+            }
+        }
+        insertionSort(a, lo, hi, c);
+    }
+
+    private static void insertionSort(double[] a, int lo, int hi, DoubleComparator c) {
+        for (int i = lo + 1; i <= hi; i++) {
+            double value = a[i];
+            int j = i - 1;
+            while (j >= lo && c.compare(a[j], value) > 0) {
+                a[j + 1] = a[j];
+                j--;
+            }
+            a[j + 1] = value;
+        }
+    }
+
+    private static void heapSort(double[] a, int lo, int hi, DoubleComparator c) {
+        int n = hi - lo + 1;
+        for (int i = n / 2 - 1; i >= 0; i--) siftDown(a, lo, i, n, c);
+        for (int end = n - 1; end > 0; end--) {
+            swap(a, lo, lo + end);
+            siftDown(a, lo, 0, end, c);
+        }
+    }
+
+    private static void siftDown(double[] a, int lo, int i, int n, DoubleComparator c) {
+        double value = a[lo + i];
+        while (2 * i + 1 < n) {
+            int child = 2 * i + 1;
+            if (child + 1 < n && c.compare(a[lo + child + 1], a[lo + child]) > 0) child++;
+            if (c.compare(a[lo + child], value) <= 0) break;
+            a[lo + i] = a[lo + child];
+            i = child;
+        }
+        a[lo + i] = value;
+    }
+
+    private static void swap(double[] a, int i, int j) {
+        double t = a[i];
+        a[i] = a[j];
+        a[j] = t;
+    }
+}
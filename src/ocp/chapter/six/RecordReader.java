@@ -0,0 +1,193 @@
+package ocp.chapter.six;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+// Reads the records written by RecordWriter, one at a time, without creating an object per record:
+//
+//   RecordReader<Animal> reader = RecordReader.open(schema, channel);
+//   while (reader.next()) {
+//       if (reader.flag(hop)) hoppers++;     // reads one bit of the current record
+//       Animal animal = reader.get();        // only when an object is really needed
+//   }
+//
+// The reader is a view over the bytes of the current record (a flyweight): next() only finds where each field starts, the field
+// methods decode it when they're called, and a dictionary field returns the string shared by every record. The values are
+// valid until the next call to next().
+// The bytes come from a ByteBuffer (on the heap, direct or a mapped file) or are read from a channel into a 64 KB buffer.
+// A corrupted or truncated stream throws IllegalStateException, I/O errors of the channel are thrown as UncheckedIOException.
+public final class RecordReader<T> implements RecordView {
+
+    private final RecordSchema<T> schema;
+    private final ReadableByteChannel channel; // null when everything is in the buffer
+    private ByteBuffer buffer;
+    private final List<String> dictionary = new ArrayList<>();
+    private final RecordSchema.Type[] types;
+    private final int[] offsets; // Where each field of the current record starts in the buffer
+    private long flags;
+    private boolean current;
+    private int cursor; // Position after the last varint read by varint()
+
+    // Reads from the position to the limit of 'source'.
+    public RecordReader(RecordSchema<T> schema, ByteBuffer source) {
+        this(schema, null, source.slice());
+    }
+
+    public RecordReader(RecordSchema<T> schema, ReadableByteChannel channel) {
+        this(schema, channel, ByteBuffer.allocate(1 << 16).limit(0));
+    }
+
+    private RecordReader(RecordSchema<T> schema, ReadableByteChannel channel, ByteBuffer buffer) {
+        this.schema = schema;
+        this.channel = channel;
+        this.buffer = buffer;
+        this.types = new RecordSchema.Type[schema.size()];
+        for (int f = 0; f < types.length; f++) types[f] = schema.get(f).type;
+        this.offsets = new int[schema.size()];
+        if (!fill(8)) throw new IllegalStateException("Not a record stream: less than 8 bytes");
+        if (buffer.getInt() != RecordWriter.MAGIC) throw new IllegalStateException("Not a record stream");
+        if (buffer.getInt() != schema.fingerprint()) throw new IllegalStateException("Written with another schema");
+    }
+
+    // Maps the file when it fits in one mapping (up to 2 GB), reads it through a buffer otherwise.
+    public static <T> RecordReader<T> open(RecordSchema<T> schema, FileChannel channel) throws IOException {
+        long size = channel.size() - channel.position();
+        if (size > Integer.MAX_VALUE) return new RecordReader<>(schema, channel);
+        return new RecordReader<>(schema, channel.map(FileChannel.MapMode.READ_ONLY, channel.position(), size));
+    }
+
+    // Moves to the next record, false at the end of the stream.
+    public boolean next() {
+        current = false;
+        while (fill(1)) {
+            if (buffer.remaining() < 10) fill(10); // The frame header is at most 10 bytes, fewer at the end of the stream
+            long header = varint(buffer.position());
+            long length = header >>> 1;
+            if (length > Integer.MAX_VALUE - 10) throw new IllegalStateException("Corrupted frame length " + length);
+            int headerLength = cursor - buffer.position();
+            if (!fill(headerLength + (int) length)) throw new IllegalStateException("Truncated stream");
+            int start = buffer.position() + headerLength;
+            int end = start + (int) length;
+            buffer.position(end);
+            if ((header & 1) == 0) {
+                dictionary.add(decode(start, end));
+            } else {
+                locate(start, end);
+                return current = true;
+            }
+        }
+        return false;
+    }
+
+    private void locate(int start, int end) {
+        cursor = start;
+        flags = schema.hasFlags() ? varint(cursor) : 0;
+        for (int f = 0; f < offsets.length; f++) {
+            offsets[f] = cursor;
+            switch (types[f]) {
+                case DICTIONARY:
+                case INT:
+                    varint(cursor);
+                    break;
+                case STRING:
+                    long length = varint(cursor);
+                    cursor += (int) length;
+                    break;
+                default: // FLAG, in 'flags'
+            }
+        }
+        if (cursor != end) throw new IllegalStateException("Record of " + (end - start) + " bytes doesn't match the schema");
+    }
+
+    @Override
+    public String string(int field) {
+        switch (field(field).type) {
+            case DICTIONARY:
+                long index = varint(offsets[field]);
+                if (index >= dictionary.size()) throw new IllegalStateException("Unknown dictionary string " + index);
+                return dictionary.get((int) index);
+            case STRING:
+                int length = (int) varint(offsets[field]);
+                return decode(cursor, cursor + length);
+            default:
+                throw new IllegalArgumentException("Field " + field + " isn't a string");
+        }
+    }
+
+    @Override
+    public boolean flag(int field) {
+        RecordSchema.Field<T> definition = field(field);
+        if (definition.type != RecordSchema.Type.FLAG) throw new IllegalArgumentException("Field " + field + " isn't a flag");
+        return (flags >>> definition.bit & 1) != 0;
+    }
+
+    @Override
+    public int integer(int field) {
+        if (field(field).type != RecordSchema.Type.INT) throw new IllegalArgumentException("Field " + field + " isn't an int");
+        int zigzag = (int) varint(offsets[field]);
+        return zigzag >>> 1 ^ -(zigzag & 1);
+    }
+
+    // A new object with the fields of the current record.
+    public T get() {
+        if (!current) throw new IllegalStateException("No current record");
+        return schema.create(this);
+    }
+
+    public int dictionarySize() {
+        return dictionary.size();
+    }
+
+    private RecordSchema.Field<T> field(int field) {
+        if (!current) throw new IllegalStateException("No current record");
+        return schema.get(field);
+    }
+
+    private long varint(int at) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            if (at >= buffer.limit()) throw new IllegalStateException("Truncated varint");
+            byte b = buffer.get(at++);
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                cursor = at;
+                return value;
+            }
+        }
+        throw new IllegalStateException("Varint longer than 10 bytes");
+    }
+
+    private String decode(int from, int to) {
+        byte[] bytes = new byte[to - from];
+        buffer.duplicate().position(from).get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // Makes at least 'bytes' bytes available from the position, reading from the channel if needed. False when the stream ends first.
+    private boolean fill(int bytes) {
+        if (buffer.remaining() >= bytes) return true;
+        if (channel == null) return false;
+        if (buffer.capacity() < bytes) {
+            buffer = ByteBuffer.allocate(Math.max(bytes, buffer.capacity() * 2)).put(buffer).flip();
+        } else {
+            buffer.compact().flip();
+        }
+        try {
+            while (buffer.remaining() < bytes) {
+                int position = buffer.position();
+                buffer.position(buffer.limit()).limit(buffer.capacity());
+                int read = channel.read(buffer);
+                buffer.limit(buffer.position()).position(position);
+                if (read < 0) return false;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return true;
+    }
+}
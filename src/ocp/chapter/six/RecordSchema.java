@@ -0,0 +1,129 @@
+package ocp.chapter.six;
+
+import java.util.*;
+import java.util.function.*;
+
+// The fields of a record type for RecordWriter/RecordReader, each one with the lambda that reads it from the object:
+//
+//   RecordSchema<Animal> schema = RecordSchema.<Animal>builder()
+//       .dictionary("name", Animal::toString)
+//       .flag("canHop", Animal::canHop)
+//       .build(view -> new Animal(view.string(0), view.flag(1)));
+//
+// Field types and how a record stores them:
+// - DICTIONARY: a String that repeats a lot (species, names). The first time it's written it goes to the shared dictionary of
+//   the stream, then every record only has its index in the dictionary (1 byte for the first 128 strings).
+// - STRING: a String stored in the record, varint length + UTF-8 bytes.
+// - FLAG: a boolean, all the flags of a record are packed as bits in one varint (1 byte for up to 7 flags).
+// - INT: an int as a zigzag varint, small values (positive or negative) take 1 or 2 bytes.
+public final class RecordSchema<T> {
+
+    enum Type { DICTIONARY, STRING, FLAG, INT }
+
+    static final class Field<T> {
+        final String name;
+        final Type type;
+        final Function<? super T, String> string;
+        final Predicate<? super T> flag;
+        final ToIntFunction<? super T> integer;
+        final int bit; // Bit in the flags varint, -1 when it isn't a FLAG
+
+        private Field(String name, Type type, Function<? super T, String> string, Predicate<? super T> flag,
+                      ToIntFunction<? super T> integer, int bit) {
+            this.name = name;
+            this.type = type;
+            this.string = string;
+            this.flag = flag;
+            this.integer = integer;
+            this.bit = bit;
+        }
+    }
+
+    private final List<Field<T>> fields;
+    private final Function<? super RecordView, ? extends T> factory;
+    private final int flags;
+    private final int fingerprint;
+
+    private RecordSchema(List<Field<T>> fields, Function<? super RecordView, ? extends T> factory) {
+        this.fields = List.copyOf(fields);
+        this.factory = factory;
+        int flags = 0;
+        int fingerprint = 1;
+        for (Field<T> field : fields) {
+            if (field.type == Type.FLAG) flags++;
+            fingerprint = 31 * fingerprint + (field.name + ":" + field.type).hashCode();
+        }
+        this.flags = flags;
+        this.fingerprint = fingerprint;
+    }
+
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    public int size() {
+        return fields.size();
+    }
+
+    public int field(String name) {
+        for (int i = 0; i < fields.size(); i++) {
+            if (fields.get(i).name.equals(name)) return i;
+        }
+        throw new IllegalArgumentException("No field " + name);
+    }
+
+    Field<T> get(int field) {
+        return fields.get(field);
+    }
+
+    boolean hasFlags() {
+        return flags > 0;
+    }
+
+    // Written at the start of a stream, so a reader with another schema fails at once instead of reading garbage.
+    int fingerprint() {
+        return fingerprint;
+    }
+
+    T create(RecordView view) {
+        return factory.apply(view);
+    }
+
+    public static final class Builder<T> {
+
+        private final List<Field<T>> fields = new ArrayList<>();
+        private int flags;
+
+        private Builder() { }
+
+        public Builder<T> dictionary(String name, Function<? super T, String> getter) {
+            return add(new Field<>(name, Type.DICTIONARY, getter, null, null, -1));
+        }
+
+        public Builder<T> string(String name, Function<? super T, String> getter) {
+            return add(new Field<>(name, Type.STRING, getter, null, null, -1));
+        }
+
+        public Builder<T> flag(String name, Predicate<? super T> getter) {
+            if (flags == 63) throw new IllegalStateException("At most 63 flags");
+            return add(new Field<>(name, Type.FLAG, null, getter, null, flags++));
+        }
+
+        public Builder<T> integer(String name, ToIntFunction<? super T> getter) {
+            return add(new Field<>(name, Type.INT, null, null, getter, -1));
+        }
+
+        private Builder<T> add(Field<T> field) {
+            for (Field<T> other : fields) {
+                if (other.name.equals(field.name)) throw new IllegalArgumentException("Duplicate field " + field.name);
+            }
+            fields.add(field);
+            return this;
+        }
+
+        // 'factory' creates an object from the fields of a record, for RecordReader.get().
+        public RecordSchema<T> build(Function<? super RecordView, ? extends T> factory) {
+            return new RecordSchema<>(fields, Objects.requireNonNull(factory));
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package ocp.chapter.six;
+
+// Read access to the fields of one encoded record, by their index in the RecordSchema. RecordReader implements it over the
+// bytes of the current record, the schema's factory uses it to create the object.
+public interface RecordView {
+
+    String string(int field); // DICTIONARY and STRING fields, a dictionary string is the same instance for every record
+
+    boolean flag(int field);
+
+    int integer(int field);
+}
@@ -0,0 +1,156 @@
+package ocp.chapter.six;
+
+import java.io.*;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+// Writes objects as records of a RecordSchema, into a ByteBuffer or a channel (a FileChannel, a socket...).
+// Stream format:
+//   "ZRC1" + the schema fingerprint (4 bytes), then frames: varint (payload length << 1 | kind) + payload
+//   kind 0 - a new dictionary string (UTF-8), its index is the number of dictionary strings before it
+//   kind 1 - a record: the flags varint (when the schema has flags), then the other fields in schema order
+// A dictionary string is written right before the first record that uses it, so a stream can be read from the start without
+// knowing the dictionary up front, and writing never needs a second pass.
+// I/O errors of the channel are thrown as UncheckedIOException.
+public final class RecordWriter<T> implements Closeable {
+
+    static final int MAGIC = 'Z' << 24 | 'R' << 16 | 'C' << 8 | '1';
+
+    private final RecordSchema<T> schema;
+    private final WritableByteChannel channel; // null when writing into the buffer only
+    private ByteBuffer buffer;
+    private final Map<String, Integer> dictionary = new HashMap<>();
+    private byte[] record = new byte[64]; // Payload of the record being written, its length is needed before it
+    private int length;
+    private long records;
+
+    // Writes into 'target' from its position, throws BufferOverflowException when it's full.
+    public RecordWriter(RecordSchema<T> schema, ByteBuffer target) {
+        this(schema, null, target);
+    }
+
+    public RecordWriter(RecordSchema<T> schema, WritableByteChannel channel) {
+        this(schema, channel, ByteBuffer.allocate(1 << 16));
+    }
+
+    private RecordWriter(RecordSchema<T> schema, WritableByteChannel channel, ByteBuffer buffer) {
+        this.schema = schema;
+        this.channel = channel;
+        this.buffer = buffer;
+        ensure(8);
+        buffer.putInt(MAGIC).putInt(schema.fingerprint());
+    }
+
+    public void write(T value) {
+        length = 0;
+        if (schema.hasFlags()) {
+            long flags = 0;
+            for (int f = 0; f < schema.size(); f++) {
+                RecordSchema.Field<T> field = schema.get(f);
+                if (field.type == RecordSchema.Type.FLAG && field.flag.test(value)) flags |= 1L << field.bit;
+            }
+            putVarint(flags);
+        }
+        for (int f = 0; f < schema.size(); f++) {
+            RecordSchema.Field<T> field = schema.get(f);
+            switch (field.type) {
+                case DICTIONARY:
+                    putVarint(index(field, string(field, value)));
+                    break;
+                case STRING:
+                    byte[] bytes = string(field, value).getBytes(StandardCharsets.UTF_8);
+                    putVarint(bytes.length);
+                    put(bytes);
+                    break;
+                case INT:
+                    int integer = field.integer.applyAsInt(value);
+                    putVarint((integer << 1 ^ integer >> 31) & 0xFFFFFFFFL); // Zigzag: 0, -1, 1, -2... become 0, 1, 2, 3...
+                    break;
+                default: // FLAG, already written
+            }
+        }
+        frame(1, record, length);
+        records++;
+    }
+
+    public long records() {
+        return records;
+    }
+
+    public int dictionarySize() {
+        return dictionary.size();
+    }
+
+    // Writes the buffered bytes to the channel, nothing to do when writing into a ByteBuffer.
+    public void flush() {
+        if (channel == null) return;
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) channel.write(buffer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        buffer.clear();
+    }
+
+    @Override
+    public void close() { // Doesn't close the channel, it belongs to the caller
+        flush();
+    }
+
+    private String string(RecordSchema.Field<T> field, T value) {
+        String string = field.string.apply(value);
+        if (string == null) throw new NullPointerException("Field " + field.name + " is null");
+        return string;
+    }
+
+    private int index(RecordSchema.Field<T> field, String string) {
+        Integer index = dictionary.get(string);
+        if (index != null) return index;
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        frame(0, bytes, bytes.length); // Before the record that uses it, the record is still being built in 'record'
+        dictionary.put(string, dictionary.size());
+        return dictionary.size() - 1;
+    }
+
+    private void frame(int kind, byte[] payload, int length) {
+        ensure(10 + length);
+        long header = (long) length << 1 | kind;
+        while ((header & ~0x7FL) != 0) {
+            buffer.put((byte) (header & 0x7F | 0x80));
+            header >>>= 7;
+        }
+        buffer.put((byte) header);
+        buffer.put(payload, 0, length);
+    }
+
+    private void ensure(int bytes) {
+        if (buffer.remaining() >= bytes) return;
+        if (channel == null) throw new BufferOverflowException();
+        flush();
+        if (buffer.capacity() < bytes) buffer = ByteBuffer.allocate(Math.max(bytes, buffer.capacity() * 2));
+    }
+
+    // Unsigned LEB128: 7 bits per byte, the high bit tells that another byte follows.
+    private void putVarint(long value) {
+        if (record.length - length < 10) record = Arrays.copyOf(record, record.length * 2);
+        while ((value & ~0x7FL) != 0) {
+            record[length++] = (byte) (value & 0x7F | 0x80);
+            value >>>= 7;
+        }
+        record[length++] = (byte) value;
+    }
+
+    private void put(byte[] bytes) {
+        if (record.length - length < bytes.length) {
+            record = Arrays.copyOf(record, Math.max(record.length * 2, length + bytes.length));
+        }
+        System.arraycopy(bytes, 0, record, length, bytes.length);
+        length += bytes.length;
+    }
+}
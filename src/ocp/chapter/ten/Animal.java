@@ -0,0 +1,5 @@
+package ocp.chapter.ten;
+
+interface Animal {
+    void good() throws NoMoreCarrotsException;
+}
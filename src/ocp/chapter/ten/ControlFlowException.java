@@ -0,0 +1,28 @@
+package ocp.chapter.ten;
+
+// Base type for checked exceptions that are thrown as expected control flow (like NoMoreCarrotsException).
+// Most of the cost of 'throw new SomeException()' comes from Throwable's constructor calling fillInStackTrace(), which walks the
+// whole method stack. Throwable has a protected constructor (message, cause, enableSuppression, writableStackTrace) that skips it:
+// - writableStackTrace = false: no stack trace is captured, getStackTrace() returns an empty array and setStackTrace() is ignored.
+// - enableSuppression = false: addSuppressed() is ignored (try-with-resources can't attach suppressed exceptions to it).
+// A stackless instance has no per-throw state, so a single cached instance can be thrown over and over again.
+// Run with -Docp.chapter.ten.stackTraces=true to capture stack traces again (for debugging), even in stackless mode.
+public abstract class ControlFlowException extends Exception {
+
+    private static final long serialVersionUID = 1L;
+
+    static final boolean STACK_TRACES = Boolean.getBoolean("ocp.chapter.ten.stackTraces");
+
+    protected ControlFlowException(String message) {
+        this(message, false);
+    }
+
+    protected ControlFlowException(String message, boolean stackless) {
+        super(message, null, !stackless || STACK_TRACES, !stackless || STACK_TRACES);
+    }
+
+    // A shared instance is only safe to throw when it carries no stack trace, otherwise every throw would show the first throw site.
+    protected static boolean cacheable() {
+        return !STACK_TRACES;
+    }
+}
@@ -0,0 +1,51 @@
+package ocp.chapter.ten;
+
+import java.util.function.Supplier;
+
+// Measures the throw/catch cost of NoMoreCarrotsException in each mode. The exception is thrown 'depth' calls deep,
+// since the cost of capturing the stack trace grows with the number of frames on the stack.
+// java ocp.chapter.ten.ExceptionCostExample [depth] [throws]
+// java -Docp.chapter.ten.stackTraces=true ocp.chapter.ten.ExceptionCostExample - All modes capture the stack trace again.
+public class ExceptionCostExample {
+
+    private static int carrots;
+
+    public static void main(String... args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : 50;
+        int throwsPerRound = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+
+        System.out.println("Stack traces forced: " + ControlFlowException.STACK_TRACES);
+        System.out.println("Stackless trace length: " + new NoMoreCarrotsException(true).getStackTrace().length); // 0
+
+        for (int round = 0; round < 3; round++) { // First rounds warm up the JIT, look at the last one.
+            System.out.println("\n----------------round " + round + "----------------\n");
+
+            measure("full stack trace", depth, throwsPerRound, () -> new NoMoreCarrotsException());
+            measure("stackless", depth, throwsPerRound, () -> new NoMoreCarrotsException(true));
+            measure("cached singleton", depth, throwsPerRound, NoMoreCarrotsException::cached);
+        }
+    }
+
+    private static void measure(String mode, int depth, int times, Supplier<NoMoreCarrotsException> factory) {
+        int caught = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < times; i++) {
+            try {
+                eat(depth, factory);
+            } catch (NoMoreCarrotsException e) {
+                caught++;
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        System.out.printf("%-18s %,d throws %8.1f ns/throw%n", mode, caught, (double) elapsed / times);
+    }
+
+    private static void eat(int depth, Supplier<NoMoreCarrotsException> factory) throws NoMoreCarrotsException {
+        if (depth > 0) {
+            eat(depth - 1, factory);
+            carrots++; // Keeps the recursion from being turned into a loop.
+            return;
+        }
+        throw factory.get();
+    }
+}
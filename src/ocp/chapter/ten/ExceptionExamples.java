@@ -1,15 +1,5 @@
 package ocp.chapter.ten;
 
-class NoMoreCarrotsException extends Exception {
-    NoMoreCarrotsException() {
-        super("NO MORE CARROTS!");
-    }
- }
-
-interface Animal {
-    void good() throws NoMoreCarrotsException;
-}
-
 public class ExceptionExamples implements Animal {
 
     private String string;
@@ -0,0 +1,19 @@
+package ocp.chapter.ten;
+
+class NoMoreCarrotsException extends ControlFlowException {
+
+    private static final long serialVersionUID = 1L;
+    private static final NoMoreCarrotsException CACHED = new NoMoreCarrotsException(true);
+
+    NoMoreCarrotsException() {
+        this(false);
+    }
+
+    NoMoreCarrotsException(boolean stackless) { // Stackless variant, see ControlFlowException.
+        super("NO MORE CARROTS!", stackless);
+    }
+
+    static NoMoreCarrotsException cached() { // Same instance on every call, unless stack traces were re-enabled for debugging.
+        return cacheable() ? CACHED : new NoMoreCarrotsException(true);
+    }
+}
@@ -0,0 +1,103 @@
+package ocp.chapter.ten;
+
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.Objects;
+import java.util.function.Function;
+
+// Holds either a value (ok) or an error (err), so an expected failure is returned to the caller instead of being thrown.
+// The caller checks isOk()/isErr() with a plain if, there is no throw, no stack unwinding and no catch block on the hot path,
+// so the JIT doesn't need to deoptimize the method when the "exceptional" outcome starts happening a lot.
+// attempt() and orElseThrow() are the adapters between this and the throwing (checked exception) form.
+public final class Result<T, E> {
+
+    private static final Result<?, ?> EMPTY = new Result<>(null, null, true);
+
+    private final T value;
+    private final E error;
+    private final boolean ok;
+
+    private Result(T value, E error, boolean ok) {
+        this.value = value;
+        this.error = error;
+        this.ok = ok;
+    }
+
+    public static <T, E> Result<T, E> ok(T value) {
+        return new Result<>(value, null, true);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T, E> Result<T, E> ok() { // For Result<Void, E>, it's shared so it doesn't allocate.
+        return (Result<T, E>) EMPTY;
+    }
+
+    public static <T, E> Result<T, E> err(E error) {
+        return new Result<>(null, Objects.requireNonNull(error), false);
+    }
+
+    // Throwing -> result: runs the supplier and returns its checked exception of the given type as an error.
+    // Unchecked exceptions and errors are not expected outcomes, so they are still thrown.
+    public static <T, X extends Exception> Result<T, X> attempt(ThrowingSupplier<? extends T, ? extends X> supplier,
+                                                                Class<X> type) {
+        try {
+            return ok(supplier.get());
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            if (type.isInstance(e)) return err(type.cast(e));
+            throw new UndeclaredThrowableException(e); // Only possible if the supplier sneaky-throws another checked exception.
+        }
+    }
+
+    public boolean isOk() {
+        return ok;
+    }
+
+    public boolean isErr() {
+        return !ok;
+    }
+
+    public T get() {
+        if (!ok) throw new IllegalStateException("Result is an error: " + error);
+        return value;
+    }
+
+    public E error() {
+        if (ok) throw new IllegalStateException("Result is not an error");
+        return error;
+    }
+
+    public T orElse(T other) {
+        return ok ? value : other;
+    }
+
+    // Result -> throwing: returns the value or throws the exception created from the error.
+    public <X extends Exception> T orElseThrow(Function<? super E, ? extends X> toException) throws X {
+        if (ok) return value;
+        throw toException.apply(error);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <U> Result<U, E> map(Function<? super T, ? extends U> mapper) {
+        return ok ? ok(mapper.apply(value)) : (Result<U, E>) this; // An error has no value, so the same instance can be reused.
+    }
+
+    @SuppressWarnings("unchecked")
+    public <F> Result<T, F> mapError(Function<? super E, ? extends F> mapper) {
+        return ok ? (Result<T, F>) this : err(mapper.apply(error));
+    }
+
+    @SuppressWarnings("unchecked")
+    public <U> Result<U, E> flatMap(Function<? super T, Result<U, E>> mapper) {
+        return ok ? mapper.apply(value) : (Result<U, E>) this;
+    }
+
+    public String toString() {
+        return ok ? "Ok[" + value + "]" : "Err[" + error + "]";
+    }
+
+    @FunctionalInterface
+    public interface ThrowingSupplier<T, X extends Exception> {
+        T get() throws X;
+    }
+}
@@ -0,0 +1,94 @@
+package ocp.chapter.ten;
+
+public class ResultExamples {
+
+    enum CarrotError {
+        NO_MORE_CARROTS
+    }
+
+    // Result-returning version of the Animal interface (good() throws NoMoreCarrotsException).
+    interface ResultAnimal {
+        Result<Void, CarrotError> tryGood();
+
+        static ResultAnimal from(Animal animal) { // Throwing -> result
+            return () -> Result.<Void, NoMoreCarrotsException>attempt(() -> { animal.good(); return null; }, NoMoreCarrotsException.class)
+                               .mapError(e -> CarrotError.NO_MORE_CARROTS);
+        }
+
+        static Animal toAnimal(ResultAnimal animal) { // Result -> throwing, the checked contract of Animal still works
+            return () -> animal.tryGood().orElseThrow(e -> NoMoreCarrotsException.cached());
+        }
+    }
+
+    // A rabbit that eats one carrot per good() call, until the carrots are gone.
+    static class CarrotPatch implements Animal, ResultAnimal {
+        private static final Result<Void, CarrotError> NO_MORE = Result.err(CarrotError.NO_MORE_CARROTS); // Shared, no allocation per call.
+
+        private int carrots;
+
+        CarrotPatch(int carrots) {
+            this.carrots = carrots;
+        }
+
+        public void good() throws NoMoreCarrotsException {
+            if (carrots == 0) throw new NoMoreCarrotsException();
+            carrots--;
+        }
+
+        public Result<Void, CarrotError> tryGood() {
+            if (carrots == 0) return NO_MORE;
+            carrots--;
+            return Result.ok();
+        }
+    }
+
+    public static void main(String... args) throws NoMoreCarrotsException {
+
+        ResultAnimal rabbit = new CarrotPatch(1);
+
+        System.out.println(rabbit.tryGood()); // Ok[null]
+        System.out.println(rabbit.tryGood()); // Err[NO_MORE_CARROTS]
+
+        ResultAnimal adapted = ResultAnimal.from(new CarrotPatch(0)); // Animal -> ResultAnimal
+        System.out.println(adapted.tryGood()); // Err[NO_MORE_CARROTS]
+
+        Animal throwing = ResultAnimal.toAnimal(new CarrotPatch(1)); // ResultAnimal -> Animal
+        throwing.good();
+        try {
+            throwing.good();
+        } catch (NoMoreCarrotsException e) {
+            System.out.println(e.getMessage()); // NO MORE CARROTS!
+        }
+
+        System.out.println("\n----------------------------------------\n");
+
+        // A hot loop where running out of carrots is a common outcome, not an exceptional one.
+        int patches = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        for (int round = 0; round < 3; round++) {
+            long start = System.nanoTime();
+            int empty = 0;
+            for (int i = 0; i < patches; i++) {
+                CarrotPatch patch = new CarrotPatch(i % 3);
+                try {
+                    while (true) patch.good();
+                } catch (NoMoreCarrotsException e) {
+                    empty++;
+                }
+            }
+            long throwingNs = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            int emptyResult = 0;
+            for (int i = 0; i < patches; i++) {
+                CarrotPatch patch = new CarrotPatch(i % 3);
+                while (patch.tryGood().isOk()) { }
+                emptyResult++;
+            }
+            long resultNs = System.nanoTime() - start;
+
+            System.out.printf("round %d: exceptions %,d ms (%d) | results %,d ms (%d)%n",
+                round, throwingNs / 1_000_000, empty, resultNs / 1_000_000, emptyResult);
+        }
+    }
+}
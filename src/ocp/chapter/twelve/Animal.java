@@ -0,0 +1,25 @@
+package ocp.chapter.twelve;
+
+class Animal {
+    private String species;
+    private boolean canHop;
+    private boolean canSwim;
+
+    public Animal(String speciesName, boolean hooper, boolean swimmer) {
+        species = speciesName;
+        canHop = hooper;
+        canSwim = swimmer;
+    }
+
+    public boolean canHop() {
+        return canHop;
+    }
+
+    public boolean canSwim() {
+        return canSwim;
+    }
+
+    public String toString() {
+        return species;
+    }
+}
@@ -0,0 +1,46 @@
+package ocp.chapter.twelve;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+import ocp.chapter.six.RecordReader;
+import ocp.chapter.six.RecordSchema;
+import ocp.chapter.six.RecordWriter;
+
+// The Animal of TraditionalSearch as records of the chapter six codec (RecordSchema/RecordWriter/RecordReader): the species
+// goes to the shared dictionary, canHop and canSwim are two bits of one byte, so each animal takes 3 bytes after the first
+// record of its species.
+// main() writes the animals of TraditionalSearch to a file, then prints the hoppers straight from the mapped file, reading
+// only the flag of each record and the species of the matching ones (no Animal is created).
+// The only class of this chapter that uses another chapter: compile it with ocp/chapter/six (javac from 'src' finds it).
+public class AnimalRecords {
+
+    static final RecordSchema<Animal> SCHEMA = RecordSchema.<Animal>builder()
+        .dictionary("species", Animal::toString)
+        .flag("canHop", Animal::canHop)
+        .flag("canSwim", Animal::canSwim)
+        .build(view -> new Animal(view.string(0), view.flag(1), view.flag(2)));
+
+    public static void main(String... args) throws IOException {
+        List<Animal> animals = List.of(new Animal("fish", false, true), new Animal("kangaroo", true, true),
+                                       new Animal("rabbit", true, false), new Animal("turtle", false, true));
+        Path file = Files.createTempFile("animals", ".zrc");
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            try (RecordWriter<Animal> writer = new RecordWriter<>(SCHEMA, channel)) {
+                for (Animal animal : animals) writer.write(animal);
+            }
+            System.out.println(animals.size() + " animals in " + channel.size() + " bytes");
+
+            channel.position(0);
+            RecordReader<Animal> reader = RecordReader.open(SCHEMA, channel);
+            int species = SCHEMA.field("species");
+            int canHop = SCHEMA.field("canHop");
+            while (reader.next()) {
+                if (reader.flag(canHop)) System.out.println(reader.string(species)); // Same output of TraditionalSearch
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
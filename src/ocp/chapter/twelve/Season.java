@@ -1,20 +1,28 @@
 package ocp.chapter.twelve;
 
 public enum Season {
-    WINTER("Low") {
+    WINTER(1_000) {
         public void printExpectedVisitors() { System.out.println("CLOSED"); } // Will be used when called by WINTER enum value
     },
-    SPRING("Medium"),
-    SUMMER("High"),
-    FALL("Medium");
-    
-    private final String expectedVisitors;
+    SPRING(5_000),
+    SUMMER(10_000),
+    FALL(5_000);
 
-    private Season(String expectedVisitors) {
-        this.expectedVisitors = expectedVisitors;
+    private final int capacity; // Expected visitors per day, used to be a "Low"/"Medium"/"High" String
+
+    private Season(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public String getExpectedVisitors() { // The old String levels, derived from the capacity
+        return capacity < 2_500 ? "Low" : capacity < 7_500 ? "Medium" : "High";
     }
 
     public void printExpectedVisitors() {  // Will be used when called by SPRING, SUMMER or FALL enum values
-        System.out.println(expectedVisitors);
+        System.out.println(getExpectedVisitors());
     }
-}
\ No newline at end of file
+}
@@ -3,30 +3,6 @@ package ocp.chapter.twelve;
 import java.util.*;
 import java.util.function.Predicate;
 
-class Animal {
-    private String species;
-    private boolean canHop;
-    private boolean canSwim;
-
-    public Animal(String speciesName, boolean hooper, boolean swimmer) {
-        species = speciesName;
-        canHop = hooper;
-        canSwim = swimmer;
-    }
-
-    public boolean canHop() {
-        return canHop;
-    }
-
-    public boolean canSwim() {
-        return canSwim;
-    }
-
-    public String toString() {
-        return species;
-    }
-}
-
 public class TraditionalSearch {
     public static void main(String... args) {
 
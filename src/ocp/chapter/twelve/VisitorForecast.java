@@ -0,0 +1,149 @@
+package ocp.chapter.twelve;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Counts visits per Season and per day of the season, and forecasts the expected visitors per day against Season.getCapacity().
+// - Every lookup uses ordinal() as an array index, there is no hashing. EnumMap (also an ordinal indexed array) is only used
+//   for the results handed out to callers.
+// - Counters are striped: each thread writes to one of several AtomicLongArray stripes (picked from its thread id), so threads
+//   recording visits at the same time don't fight for the same counter. Reading sums all stripes.
+public class VisitorForecast {
+
+    static final int DAYS_PER_SEASON = 93; // 3 months of up to 31 days each
+
+    private static final Season[] SEASONS = Season.values(); // values() returns a new array on every call, so it's cached here.
+
+    // Indexed by month (0 = January): the Season ordinal and the position of the month inside its Season.
+    private static final int[] SEASON_BY_MONTH = {
+        Season.WINTER.ordinal(), Season.WINTER.ordinal(),
+        Season.SPRING.ordinal(), Season.SPRING.ordinal(), Season.SPRING.ordinal(),
+        Season.SUMMER.ordinal(), Season.SUMMER.ordinal(), Season.SUMMER.ordinal(),
+        Season.FALL.ordinal(), Season.FALL.ordinal(), Season.FALL.ordinal(),
+        Season.WINTER.ordinal()
+    };
+    private static final int[] POSITION_BY_MONTH = { 1, 2, 0, 1, 2, 0, 1, 2, 0, 1, 2, 0 }; // December starts the WINTER
+
+    private final AtomicLongArray[] stripes;
+    private final int stripeMask;
+
+    public VisitorForecast() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public VisitorForecast(int concurrency) {
+        int size = Integer.highestOneBit(Math.max(1, concurrency - 1)) << 1; // Next power of two, so a mask can replace the %
+        stripes = new AtomicLongArray[size];
+        for (int i = 0; i < size; i++) stripes[i] = new AtomicLongArray(SEASONS.length * DAYS_PER_SEASON);
+        stripeMask = size - 1;
+    }
+
+    public static Season seasonOf(LocalDate date) {
+        return SEASONS[SEASON_BY_MONTH[date.getMonthValue() - 1]];
+    }
+
+    public static int dayOfSeason(LocalDate date) {
+        return POSITION_BY_MONTH[date.getMonthValue() - 1] * 31 + date.getDayOfMonth() - 1;
+    }
+
+    public void record(LocalDate date) {
+        record(seasonOf(date), dayOfSeason(date), 1);
+    }
+
+    public void record(Season season, int dayOfSeason, long visitors) {
+        Objects.checkIndex(dayOfSeason, DAYS_PER_SEASON);
+        int stripe = (int) Thread.currentThread().getId() & stripeMask;
+        stripes[stripe].addAndGet(season.ordinal() * DAYS_PER_SEASON + dayOfSeason, visitors);
+    }
+
+    public long visitors(Season season, int dayOfSeason) {
+        Objects.checkIndex(dayOfSeason, DAYS_PER_SEASON);
+        int index = season.ordinal() * DAYS_PER_SEASON + dayOfSeason;
+        long sum = 0;
+        for (AtomicLongArray stripe : stripes) sum += stripe.get(index);
+        return sum;
+    }
+
+    public long[] series(Season season) { // Visitors per day of the season
+        long[] series = new long[DAYS_PER_SEASON];
+        int base = season.ordinal() * DAYS_PER_SEASON;
+        for (AtomicLongArray stripe : stripes) {
+            for (int day = 0; day < DAYS_PER_SEASON; day++) series[day] += stripe.get(base + day);
+        }
+        return series;
+    }
+
+    public long total(Season season) {
+        long total = 0;
+        for (long visitors : series(season)) total += visitors;
+        return total;
+    }
+
+    // Average visitors per day, over the days that already had visits.
+    public double forecast(Season season) {
+        long total = 0;
+        int days = 0;
+        for (long visitors : series(season)) {
+            if (visitors > 0) {
+                total += visitors;
+                days++;
+            }
+        }
+        return days == 0 ? 0 : (double) total / days;
+    }
+
+    public double utilization(Season season) { // 1.0 means the expected visitors per day fill the Season capacity
+        return forecast(season) / season.getCapacity();
+    }
+
+    public EnumMap<Season, Long> totals() {
+        EnumMap<Season, Long> totals = new EnumMap<>(Season.class);
+        for (Season season : SEASONS) totals.put(season, total(season));
+        return totals;
+    }
+
+    public EnumMap<Season, Double> forecasts() {
+        EnumMap<Season, Double> forecasts = new EnumMap<>(Season.class);
+        for (Season season : SEASONS) forecasts.put(season, forecast(season));
+        return forecasts;
+    }
+
+    public static void main(String... args) throws Exception {
+        int threads = Runtime.getRuntime().availableProcessors();
+        int eventsPerThread = args.length > 0 ? Integer.parseInt(args[0]) : 5_000_000;
+
+        VisitorForecast forecast = new VisitorForecast(threads);
+        System.out.println(seasonOf(LocalDate.of(2020, 12, 25)) + " " + dayOfSeason(LocalDate.of(2020, 12, 25))); // WINTER 24
+
+        ExecutorService service = null;
+        try {
+            service = Executors.newFixedThreadPool(threads);
+            List<Callable<Void>> tasks = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                tasks.add(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < eventsPerThread; i++) {
+                        Season season = SEASONS[random.nextInt(SEASONS.length)];
+                        forecast.record(season, random.nextInt(DAYS_PER_SEASON), 1);
+                    }
+                    return null;
+                });
+            }
+            long start = System.nanoTime();
+            for (Future<Void> result : service.invokeAll(tasks)) result.get();
+            long elapsed = System.nanoTime() - start;
+            System.out.printf("%,d events in %,d ms (%,.0f events/s)%n", (long) threads * eventsPerThread,
+                elapsed / 1_000_000, threads * (double) eventsPerThread / elapsed * 1e9);
+        } finally {
+            if (service != null) service.shutdown();
+        }
+
+        System.out.println(forecast.totals());
+        for (Season season : SEASONS) {
+            System.out.printf("%-6s %,.0f visitors/day, capacity %,d (%s), utilization %.1fx%n", season, forecast.forecast(season),
+                season.getCapacity(), season.getExpectedVisitors(), forecast.utilization(season));
+        }
+    }
+}